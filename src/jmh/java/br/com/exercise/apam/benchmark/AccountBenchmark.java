@@ -0,0 +1,71 @@
+package br.com.exercise.apam.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.PersonDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Person;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Benchmarks the posting and balance paths of an Account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int transactionCount;
+
+    private List<Transaction> transactions;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        final Person donor = PersonDataProvider.provideDonor();
+        transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            transactions.add(TransactionDataProvider.provide(TransactionSubject.DONATION, donor));
+        }
+
+        account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        transactions.forEach(account::addTransaction);
+    }
+
+    @Benchmark
+    public Account addTransaction() {
+        final Account newAccount = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        for (Transaction transaction : transactions) {
+            newAccount.addTransaction(transaction);
+        }
+        return newAccount;
+    }
+
+    @Benchmark
+    public BigDecimal getBalance() {
+        return account.getBalance();
+    }
+}
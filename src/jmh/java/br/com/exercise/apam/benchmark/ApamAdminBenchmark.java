@@ -0,0 +1,176 @@
+package br.com.exercise.apam.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.controller.ChildCostCalculator;
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.InstitutionDataProvider;
+import br.com.exercise.apam.dataprovider.PersonDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Institution;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Benchmarks the month-end billing paths: enrolling children, calculating child costs and City Hall payments.
+ * Every other child has an account with one transaction, so both branches of the cost calculation are measured.
+ * The City Hall payment is measured after posting to 1% of the child accounts, so the changed children are
+ * recalculated on each invocation, and also when nothing changed, so only the cached total is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApamAdminBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int childCount;
+
+    private Institution cityHall;
+    private List<TransactionParty> children;
+    private AccountController accountController;
+    private ApamAdmin apamAdmin;
+    private ApamAdmin enrolledAdmin;
+    private ChildCostCalculator childCostCalculator;
+    private TransactionParty company;
+    private List<TransactionParty> childrenWithAccount;
+    private int nextDirtyChild;
+
+    @Setup
+    public void setUp() {
+        company = InstitutionDataProvider.provide(TransactionPartyType.COMPANY);
+        cityHall = InstitutionDataProvider.provideCityHall();
+        children = new ArrayList<>(childCount);
+        childrenWithAccount = new ArrayList<>(childCount / 2 + 1);
+        accountController = new AccountController();
+        for (int i = 0; i < childCount; i++) {
+            final TransactionParty child = PersonDataProvider.provide(TransactionPartyType.CHILD);
+            if (i % 2 == 0) {
+                final Account account = AccountDataProvider.provide(AccountType.CHILD_ACCOUNT);
+                account.addTransaction(TransactionDataProvider.provide(TransactionSubject.PAYMENT, company));
+                accountController.addAccount(child, account);
+                childrenWithAccount.add(child);
+            }
+            children.add(child);
+        }
+
+        apamAdmin = enrolChildren();
+        childCostCalculator = new ChildCostCalculator(accountController);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeEnrolledAdmin() {
+        if (enrolledAdmin != null) {
+            enrolledAdmin.close();
+            enrolledAdmin = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        apamAdmin.close();
+    }
+
+    @Benchmark
+    public ApamAdmin addChild() {
+        enrolledAdmin = enrolChildren();
+        return enrolledAdmin;
+    }
+
+    @Benchmark
+    public BigDecimal calculateCityHallPayment(final DirtyChildren dirtyChildren) {
+        return apamAdmin.calculateCityHallPayment(cityHall);
+    }
+
+    @Benchmark
+    public BigDecimal calculateCityHallPaymentCached() {
+        return apamAdmin.calculateCityHallPayment(cityHall);
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyCost() {
+        final ChildCostCalculator calculator = new ChildCostCalculator(accountController);
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransactionParty child : children) {
+            total = total.add(calculator.calculateMonthlyCost(child));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyCostCached() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransactionParty child : children) {
+            total = total.add(childCostCalculator.calculateMonthlyCost(child));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long calculateMonthlyCostsInCents() {
+        final long[] costs = new ChildCostCalculator(accountController).calculateMonthlyCostsInCents(children);
+        long total = 0;
+        for (long cost : costs) {
+            total += cost;
+        }
+        return total;
+    }
+
+    /**
+     * Posts a transaction to the next 1% of the child accounts, so their cost must be recalculated.
+     */
+    private void postToDirtyChildren() {
+        final int dirtyChildren = Math.max(1, childrenWithAccount.size() / 100);
+        for (int i = 0; i < dirtyChildren; i++) {
+            final TransactionParty child = childrenWithAccount.get(nextDirtyChild);
+            accountController.addTransaction(child, TransactionDataProvider.provide(TransactionSubject.PAYMENT, company));
+            nextDirtyChild = (nextDirtyChild + 1) % childrenWithAccount.size();
+        }
+    }
+
+    private ApamAdmin enrolChildren() {
+        final ApamAdmin admin = new ApamAdmin(accountController);
+        admin.addTransactionParty(cityHall);
+        for (TransactionParty child : children) {
+            admin.addTransactionParty(child);
+            admin.addChild(cityHall, child);
+        }
+        return admin;
+    }
+
+    /**
+     * Marks part of the children as changed before each invocation of the benchmarks that use it.
+     */
+    @State(Scope.Benchmark)
+    public static class DirtyChildren {
+
+        @Setup(Level.Invocation)
+        public void setUp(final ApamAdminBenchmark benchmark) {
+            benchmark.postToDirtyChildren();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.exercise.apam.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.exercise.apam.model.IdGenerator;
+import br.com.exercise.apam.model.Person;
+import br.com.exercise.apam.model.TimeOrderedIdGenerator;
+import br.com.exercise.apam.model.TransactionPartyType;
+
+/**
+ * Benchmarks anonymous donor creation with the random UUID and the time ordered id generators, from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Benchmark
+    public Person anonymousDonorWithRandomUuid() {
+        return new Person(TransactionPartyType.DONOR, IdGenerator.RANDOM_UUID);
+    }
+
+    @Benchmark
+    public Person anonymousDonorWithTimeOrderedId() {
+        return new Person(TransactionPartyType.DONOR, TimeOrderedIdGenerator.INSTANCE);
+    }
+}
@@ -1,29 +1,44 @@
 package br.com.exercise.apam.controller;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
+import br.com.exercise.apam.metrics.ApamMetrics;
 import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.Identifier;
 import br.com.exercise.apam.model.Transaction;
 import br.com.exercise.apam.model.TransactionParty;
 
 /**
  * Controls all of Apam and Their Child Accounts
+ *
+ * The controller is thread safe, accounts can be added and retrieved from multiple threads.
  */
-public final class AccountController {
+public final class AccountController implements AccountDirectory {
 
-    private final Map<String, Account> accounts;
+    private final Map<Identifier, Account> accounts;
+    private final Map<Identifier, TransactionParty> accountOwners;
+    private final List<AccountListener> accountListeners;
+    private final Collection<Account> accountsView;
 
     /**
      * Builds a new AccountController with an empty account list
      */
     public AccountController() {
-        this.accounts = new HashMap<>();
-
+        this.accounts = new ConcurrentHashMap<>();
+        this.accountOwners = new ConcurrentHashMap<>();
+        this.accountListeners = new CopyOnWriteArrayList<>();
+        this.accountsView = Collections.unmodifiableCollection(accounts.values());
     }
 
     /**
      * Returns the Current Accounts registered
      *
+     * The accounts are copied to a new list on each call, use {@link #getAccountsView()} to read them without copying.
+     *
      * @return List of Registered Accounts
      */
     public List<Account> getAccounts() {
@@ -31,6 +46,46 @@ public final class AccountController {
         return new ArrayList<>(accounts.values());
     }
 
+    /**
+     * Returns a read-only view of the registered Accounts, backed by the controller.
+     *
+     * The view is not copied, accounts added later are visible through it. Its iterators and spliterators are
+     * weakly consistent: they never throw ConcurrentModificationException and may or may not show the accounts
+     * added while they are in use. The spliterator splits, so the view can be used with parallel streams.
+     *
+     * @return Read-only Collection of Registered Accounts
+     */
+    public Collection<Account> getAccountsView() {
+        return accountsView;
+    }
+
+    /**
+     * Opens a cursor that reads the registered Accounts in pages, with the semantics of {@link #getAccountsView()}.
+     *
+     * @param pageSize Maximum number of accounts of each page
+     *
+     * @return PageCursor of the Registered Accounts
+     *
+     * @throws IllegalArgumentException if pageSize is lower than 1
+     */
+    public PageCursor<Account> openAccountCursor(final int pageSize) {
+        return new PageCursor<>(accountsView.iterator(), pageSize);
+    }
+
+    /**
+     * Performs an action for each registered Account without copying them.
+     *
+     * @param action BiConsumer receiving the TransactionParty that owns the account and the Account
+     *
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEachAccount(final BiConsumer<TransactionParty, Account> action) {
+        Objects.requireNonNull(action, "Action cannot be null");
+
+        accounts.forEach((transactionPartyId, account) -> action.accept(accountOwners.get(transactionPartyId), account));
+    }
+
     /**
      * Returns an Account
      *
@@ -40,12 +95,12 @@ public final class AccountController {
      *
      * @throws NullPointerException if any of the parameters are null
      */
+    @Override
     public Account getAccount(final TransactionParty transactionParty) {
         if (transactionParty == null) {
             throw new NullPointerException("TransactionParty cannot be null");
         }
-        String transactionPartyId = transactionParty.getId();
-        return getAccount(transactionPartyId);
+        return lookupAccount(transactionParty.getIdentifier());
     }
 
     /**
@@ -57,16 +112,19 @@ public final class AccountController {
      *
      * @throws NullPointerException if any of the parameters are null
      */
+    @Override
     public Account getAccount(final String transactionPartyId) {
         if (transactionPartyId == null) {
             throw new NullPointerException("TransactionParty cannot be null");
         }
-        return accounts.get(transactionPartyId);
+        return lookupAccount(Identifier.of(transactionPartyId));
     }
 
     /**
      * Add a new Account for a TransactionParty following these rules:
      * 1. If an account already exists with the same id, it should not be added
+     * 2. Registered AccountListeners are notified and start listening to the account transactions before
+     * any transaction can be added to it through this controller
      *
      * @param transactionParty TransactionParty that owns the account
      * @param account Account to be added
@@ -77,8 +135,47 @@ public final class AccountController {
         Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
         Objects.requireNonNull(account, "Account cannot be null");
 
-        String transactionPartyId = transactionParty.getId();
-        accounts.putIfAbsent(transactionPartyId, account);
+        Identifier transactionPartyId = transactionParty.getIdentifier();
+        accountOwners.putIfAbsent(transactionPartyId, transactionParty);
+        // Publishing while holding the account lock keeps transactions out until every listener is attached
+        synchronized (account) {
+            if (accounts.putIfAbsent(transactionPartyId, account) == null) {
+                if (ApamMetrics.ENABLED) {
+                    ApamMetrics.ACCOUNTS_ADDED.increment();
+                }
+                notifyAccountAdded(transactionParty, account);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for accounts added from now on and their transactions.
+     * Accounts that are already registered are not affected.
+     *
+     * @param listener AccountListener to be notified
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    @Override
+    public void addAccountListener(final AccountListener listener) {
+        accountListeners.add(Objects.requireNonNull(listener, "AccountListener cannot be null"));
+    }
+
+    /**
+     * Removes a registered listener from the controller and from every registered account.
+     *
+     * @param listener AccountListener to be removed
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    @Override
+    public void removeAccountListener(final AccountListener listener) {
+        Objects.requireNonNull(listener, "AccountListener cannot be null");
+
+        accountListeners.remove(listener);
+        for (Account account : accounts.values()) {
+            account.removeListener(listener);
+        }
     }
 
     @Override
@@ -94,6 +191,131 @@ public final class AccountController {
         return Objects.equals(accounts, that.accounts);
     }
 
-    public void addTransaction(TransactionParty source, Transaction transaction) {
+    /**
+     * Add a new Transaction to the Account of its source following these rules:
+     * 1. The source must have an Account registered
+     * 2. The Transaction must follow the Account rules
+     *
+     * @param source TransactionParty that owns the account
+     * @param transaction Transaction to be added
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or the Transaction is not valid for it
+     */
+    public void addTransaction(final TransactionParty source, final Transaction transaction) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(transaction, "Transaction cannot be null");
+
+        getRequiredAccount(source).addTransaction(transaction);
+    }
+
+    /**
+     * Same as {@link #addTransaction(TransactionParty, Transaction)}, transactions are added on the calling thread.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transaction Transaction to be added
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or the Transaction is not valid for it
+     */
+    @Override
+    public void postTransaction(final TransactionParty source, final Transaction transaction) {
+        addTransaction(source, transaction);
+    }
+
+    /**
+     * Add a batch of Transactions to the Account of their source.
+     * The Account is looked up once and the whole batch is validated and added while holding the Account lock once.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transactions Transactions to be added
+     *
+     * @return int representing the number of transactions added (duplicated ones are not counted)
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or any Transaction is not valid for it
+     */
+    public int addTransactions(final TransactionParty source, final Collection<Transaction> transactions) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(transactions, "Transactions cannot be null");
+
+        return getRequiredAccount(source).addTransactions(transactions);
+    }
+
+    /**
+     * Add batches of Transactions grouped by their source following these rules:
+     * 1. Every source must have an Account registered, it is checked before any transaction is added
+     * 2. Each group is added with {@link #addTransactions(TransactionParty, Collection)}
+     * 3. Groups of sources that share the same Account are added together, in the order of the map
+     *
+     * @param transactionsBySource Map of source TransactionParty to the Transactions to be added on its Account
+     *
+     * @return int representing the number of transactions added (duplicated ones are not counted)
+     *
+     * @throws NullPointerException if the map or any of its keys or values are null
+     * @throws IllegalArgumentException if a source does not have an Account or any Transaction is not valid for it
+     */
+    public int addTransactions(final Map<TransactionParty, ? extends Collection<Transaction>> transactionsBySource) {
+        Objects.requireNonNull(transactionsBySource, "Transactions cannot be null");
+
+        Map<Account, Collection<Transaction>> transactionsByAccount = new LinkedHashMap<>();
+        for (Map.Entry<TransactionParty, ? extends Collection<Transaction>> entry : transactionsBySource.entrySet()) {
+            Objects.requireNonNull(entry.getKey(), "Source cannot be null");
+            Objects.requireNonNull(entry.getValue(), "Transactions cannot be null");
+            Account account = getRequiredAccount(entry.getKey());
+            Collection<Transaction> previous = transactionsByAccount.putIfAbsent(account, entry.getValue());
+            if (previous != null) {
+                List<Transaction> merged = new ArrayList<>(previous.size() + entry.getValue().size());
+                merged.addAll(previous);
+                merged.addAll(entry.getValue());
+                transactionsByAccount.put(account, merged);
+            }
+        }
+
+        int added = 0;
+        for (Map.Entry<Account, Collection<Transaction>> entry : transactionsByAccount.entrySet()) {
+            added += entry.getKey().addTransactions(entry.getValue());
+        }
+        return added;
+    }
+
+    private void notifyAccountAdded(final TransactionParty transactionParty, final Account account) {
+        RuntimeException failure = null;
+        for (AccountListener listener : accountListeners) {
+            account.addListener(listener);
+            try {
+                listener.onAccountAdded(transactionParty, account);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Account lookupAccount(final Identifier transactionPartyId) {
+        if (!ApamMetrics.ENABLED) {
+            return accounts.get(transactionPartyId);
+        }
+        long start = System.nanoTime();
+        Account account = accounts.get(transactionPartyId);
+        ApamMetrics.GET_ACCOUNT.recordSince(start);
+        if (account == null) {
+            ApamMetrics.ACCOUNT_MISSES.increment();
+        }
+        return account;
+    }
+
+    private Account getRequiredAccount(final TransactionParty source) {
+        Account account = accounts.get(source.getIdentifier());
+        if (account == null) {
+            throw new IllegalArgumentException("TransactionParty does not have an Account");
+        }
+        return account;
     }
 }
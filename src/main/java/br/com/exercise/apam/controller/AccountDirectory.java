@@ -0,0 +1,80 @@
+package br.com.exercise.apam.controller;
+
+import java.util.function.BiConsumer;
+
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+
+/**
+ * Accounts of Apam indexed by the TransactionParty that owns them.
+ *
+ * Implemented by {@link AccountController} and {@link ShardedAccountController}, so an ApamAdmin and its
+ * ChildCostCalculator can work on a single controller or on shards. Implementations must be thread safe.
+ */
+public interface AccountDirectory {
+
+    /**
+     * Returns an Account
+     *
+     * @param transactionParty TransactionParty that owns the account
+     *
+     * @return Account object or null if the account is not found
+     *
+     * @throws NullPointerException if the TransactionParty is null
+     */
+    Account getAccount(TransactionParty transactionParty);
+
+    /**
+     * Returns an Account by it's transactionPartyId
+     *
+     * @param transactionPartyId Id of the TransactionParty that owns the account
+     *
+     * @return Account object or null if the account is not found
+     *
+     * @throws NullPointerException if the id is null
+     */
+    Account getAccount(String transactionPartyId);
+
+    /**
+     * Performs an action for each registered Account without copying them.
+     * Accounts added while it runs may or may not be visited.
+     *
+     * @param action BiConsumer receiving the TransactionParty that owns the account and the Account
+     *
+     * @throws NullPointerException if the action is null
+     */
+    void forEachAccount(BiConsumer<TransactionParty, Account> action);
+
+    /**
+     * Registers a listener for accounts added from now on and their transactions.
+     * The listener may be called from any thread adding accounts or transactions, so it must be thread safe.
+     *
+     * @param listener AccountListener to be notified
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    void addAccountListener(AccountListener listener);
+
+    /**
+     * Removes a registered listener, so it is not notified of accounts added from now on nor of the transactions
+     * of the accounts it was listening to.
+     *
+     * @param listener AccountListener to be removed
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    void removeAccountListener(AccountListener listener);
+
+    /**
+     * Adds a new Transaction to the Account of its source, returning once it is added.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transaction Transaction to be added
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or the Transaction is not valid for it
+     */
+    void postTransaction(TransactionParty source, Transaction transaction);
+}
@@ -2,43 +2,135 @@ package br.com.exercise.apam.controller;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import br.com.exercise.apam.metrics.ApamMetrics;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Money;
 import br.com.exercise.apam.model.Transaction;
 import br.com.exercise.apam.model.TransactionParty;
 import br.com.exercise.apam.model.TransactionPartyType;
 
 /**
  * Controls all operations on Apam
+ *
+ * The City Hall payment totals listen to the accounts of the AccountDirectory, close an ApamAdmin that is discarded
+ * while its AccountDirectory is still in use, so its listeners are removed from the accounts.
  */
-public class ApamAdmin {
+public class ApamAdmin implements AutoCloseable {
 
-    private List<TransactionParty> transactionPartyList;
-    private Map<String, List<TransactionParty>> cityHallChildren;
+    private final TransactionPartyRegistry transactionPartyRegistry;
+    private final Map<Identifier, AppendOnlyList<TransactionParty>> cityHallChildren;
+    private final Map<Identifier, Identifier> childCityHall;
 
-    private final AccountController accountController;
-    private final ChildCostCalculator childCostCalculator;
+    private final AccountDirectory accountDirectory;
+    private final CityHallPaymentTotals cityHallPaymentTotals;
 
     /**
      * Builds a new ApamAdmin object with the following objects:
-     * 1. accountController
-     * 2. childCostController
-     * 3. transactionPartyList
+     * 1. accountDirectory, an AccountController or a ShardedAccountController
+     * 2. cityHallPaymentTotals, with its childCostController, listening to the accounts added to the accountDirectory
+     * 3. transactionPartyRegistry
      * 4. cityHallChildren
+     * 5. childCityHall
      */
-    public ApamAdmin(final AccountController accountController) {
-        this.accountController = accountController;
-        this.childCostCalculator = new ChildCostCalculator(accountController);
-        this.transactionPartyList = new ArrayList<>();
-        this.cityHallChildren = new HashMap<>();
+    public ApamAdmin(final AccountDirectory accountDirectory) {
+        this(accountDirectory, new ChildCostCalculator(accountDirectory));
+    }
+
+    /**
+     * Builds a new ApamAdmin object that calculates City Hall payments with the given ChildCostCalculator,
+     * so a TariffSchedule other than the default one can be used.
+     *
+     * @param accountDirectory AccountDirectory with the accounts
+     * @param childCostCalculator ChildCostCalculator over the same accountDirectory
+     *
+     * @throws NullPointerException if the childCostCalculator is null
+     */
+    public ApamAdmin(final AccountDirectory accountDirectory, final ChildCostCalculator childCostCalculator) {
+        Objects.requireNonNull(childCostCalculator, "ChildCostCalculator cannot be null");
+
+        this.accountDirectory = accountDirectory;
+        this.cityHallPaymentTotals = new CityHallPaymentTotals(accountDirectory, childCostCalculator);
+        accountDirectory.addAccountListener(cityHallPaymentTotals);
+        this.transactionPartyRegistry = new TransactionPartyRegistry();
+        this.cityHallChildren = new ConcurrentHashMap<>();
+        this.childCityHall = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the AccountDirectory used by this ApamAdmin
+     *
+     * @return AccountDirectory
+     */
+    public AccountDirectory getAccountDirectory() {
+        return accountDirectory;
+    }
+
+    /**
+     * Returns the AccountController used by this ApamAdmin
+     *
+     * @return AccountController
+     *
+     * @throws IllegalStateException if this ApamAdmin runs on a ShardedAccountController or another AccountDirectory
+     */
+    public AccountController getAccountController() {
+        if (!(accountDirectory instanceof AccountController)) {
+            throw new IllegalStateException("ApamAdmin does not run on an AccountController");
+        }
+        return (AccountController) accountDirectory;
     }
 
     /**
      * Returns the List of TransactionParty
      *
-     * @return List of TransactionParty
+     * @return Read-only List of TransactionParty in the order they were added
      */
     public List<TransactionParty> getTransactionPartyList() {
-        return transactionPartyList;
+        return transactionPartyRegistry.getTransactionParties();
+    }
+
+    /**
+     * Returns the List of TransactionParty of a type
+     *
+     * @param type TransactionPartyType to be searched
+     *
+     * @return Read-only List of TransactionParty in the order they were added
+     *
+     * @throws NullPointerException if the type is null
+     */
+    public List<TransactionParty> getTransactionPartyList(final TransactionPartyType type) {
+        return transactionPartyRegistry.getTransactionParties(type);
+    }
+
+    /**
+     * Returns a registered TransactionParty by its id
+     *
+     * @param transactionPartyId Id of the TransactionParty
+     *
+     * @return TransactionParty or null if it is not registered
+     *
+     * @throws NullPointerException if the id is null
+     */
+    public TransactionParty getTransactionParty(final String transactionPartyId) {
+        return transactionPartyRegistry.getTransactionParty(transactionPartyId);
+    }
+
+    /**
+     * Returns a registered TransactionParty by its Identifier, without building the String of the id
+     *
+     * @param transactionPartyId Identifier of the TransactionParty
+     *
+     * @return TransactionParty or null if it is not registered
+     *
+     * @throws NullPointerException if the id is null
+     */
+    public TransactionParty getTransactionParty(final Identifier transactionPartyId) {
+        return transactionPartyRegistry.getTransactionParty(transactionPartyId);
     }
 
     /**
@@ -47,9 +139,13 @@ public class ApamAdmin {
      * 2. Throw NullPointerException if the TransactionParty is null
      * 3. Throw IllegalArgumentException if the City Hall is not registered in the transaction party list
      *
+     * The returned list is a read-only view that is not copied, children added later are visible through it.
+     * Its iterators and spliterators work on the children present when they are created, so they never throw
+     * ConcurrentModificationException.
+     *
      * @param cityHall TransactionParty representing the city hall
      *
-     * @return List of TransactionParty of empty list if not found
+     * @return Read-only List of TransactionParty or empty list if not found
      *
      * @throws IllegalArgumentException if the TransactionParty is not a City Hall
      * @throws NullPointerException if the TransactionParty is null
@@ -60,10 +156,11 @@ public class ApamAdmin {
         if (cityHall.getType() != TransactionPartyType.CITY_HALL) {
             throw new IllegalArgumentException("TransactionParty is not CityHall");
         }
-        if (!transactionPartyList.contains(cityHall)){
+        if (!transactionPartyRegistry.contains(cityHall)) {
             throw new IllegalArgumentException("City Hall it not in TransactionPartyList");
         }
-        return cityHallChildren.getOrDefault(cityHall.getId(), new ArrayList<>());
+        List<TransactionParty> children = cityHallChildren.get(cityHall.getIdentifier());
+        return children == null ? Collections.emptyList() : children;
     }
 
     /**
@@ -77,9 +174,7 @@ public class ApamAdmin {
     public void addTransactionParty(final TransactionParty transactionParty) throws NullPointerException {
         Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
 
-        if (!transactionPartyList.contains(transactionParty)) {
-            transactionPartyList.add(transactionParty);
-        }
+        transactionPartyRegistry.add(transactionParty);
     }
 
     /**
@@ -96,6 +191,7 @@ public class ApamAdmin {
      *
      * @throws IllegalArgumentException If rules 1, 2, 4 are violated
      * @throws NullPointerException If any of the parameters are null
+     * @throws IllegalStateException If the ApamAdmin is closed
      */
     public void addChild(final TransactionParty cityHall, final TransactionParty child) throws NullPointerException, IllegalArgumentException {
         Objects.requireNonNull(cityHall, "CityHall cannot be null");
@@ -107,58 +203,164 @@ public class ApamAdmin {
         if (child.getType() != TransactionPartyType.CHILD) {
             throw new IllegalArgumentException("Child must be of type CHILD");
         }
-        if (!transactionPartyList.contains(cityHall) || !transactionPartyList.contains(child)) {
+        if (!transactionPartyRegistry.contains(cityHall)) {
             throw new IllegalArgumentException("TransactionParty CityHall is not registered");
         }
-        if (cityHallChildren.values().stream().anyMatch(list -> list.contains(child))) {
+        if (!transactionPartyRegistry.contains(child)) {
+            throw new IllegalArgumentException("TransactionParty Child is not registered");
+        }
+        cityHallPaymentTotals.checkOpen();
+        if (childCityHall.putIfAbsent(child.getIdentifier(), cityHall.getIdentifier()) != null) {
             throw new IllegalArgumentException("Child Already Added to Another City Hall");
         }
 
-        cityHallChildren.computeIfAbsent(cityHall.getId(), k -> new ArrayList<>()).add(child);
+        cityHallChildren.computeIfAbsent(cityHall.getIdentifier(), k -> new AppendOnlyList<>()).append(child);
+        cityHallPaymentTotals.addChild(cityHall.getIdentifier(), child);
     }
 
     /**
-     * Add a new Transaction
+     * Returns the City Hall that a child was added to
+     *
+     * @param child TransactionParty representing the Child
+     *
+     * @return TransactionParty representing the City Hall or null if the child was not added to any City Hall
+     *
+     * @throws NullPointerException If the child is null
+     * @throws IllegalArgumentException If the child is not of CHILD type
+     */
+    public TransactionParty getCityHallOf(final TransactionParty child) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(child, "Child cannot be null");
+
+        if (child.getType() != TransactionPartyType.CHILD) {
+            throw new IllegalArgumentException("Child must be of type CHILD");
+        }
+
+        Identifier cityHallId = childCityHall.get(child.getIdentifier());
+        if (cityHallId == null) {
+            return null;
+        }
+        return transactionPartyRegistry.getTransactionParty(cityHallId);
+    }
+
+    /**
+     * Add a new Transaction to the Account of the source
      *
      * @param source TransactionParty representing the source
      * @param transaction Transaction to be added
      *
      * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or the Transaction is not valid for it
      */
     public void addTransaction(final TransactionParty source, final Transaction transaction) throws NullPointerException {
         Objects.requireNonNull(source, "Source cannot be null");
         Objects.requireNonNull(transaction, "Transaction cannot be null");
 
-        accountController.addTransaction(source, transaction);
+        accountDirectory.postTransaction(source, transaction);
     }
 
     /**
      * Calculates the city hall payment following these rules:
      * 1. If the CityHall parameter is not of CITY_HALL type, throw IllegalArgumentException
+     * 2. The payment is the sum of the monthly cost of its children
+     *
+     * The payment is kept up to date as children are added and their accounts receive transactions,
+     * so this method does not recalculate the cost of each child.
      *
      * @param cityHall TransactionParty representing the City Hall
      *
      * @return BigDecimal representing the value of the payment
      *
      * @throws NullPointerException If any of the parameters are null
-     * @throws IllegalArgumentException If the transaction party is not of city hall type
+     * @throws IllegalArgumentException If the transaction party is not of city hall type or is not registered
+     * @throws IllegalStateException If the ApamAdmin is closed
      */
     public BigDecimal calculateCityHallPayment(final TransactionParty cityHall) throws NullPointerException, IllegalArgumentException {
+        if (!ApamMetrics.ENABLED) {
+            return readCityHallPayment(cityHall);
+        }
+        long start = System.nanoTime();
+        try {
+            return readCityHallPayment(cityHall);
+        } finally {
+            ApamMetrics.CITY_HALL_PAYMENT.recordSince(start);
+        }
+    }
+
+    private BigDecimal readCityHallPayment(final TransactionParty cityHall) {
         Objects.requireNonNull(cityHall, "CityHall cannot be null");
 
         if (cityHall.getType() != TransactionPartyType.CITY_HALL) {
             throw new IllegalArgumentException("TransactionParty is not CityHall");
         }
+        if (!transactionPartyRegistry.contains(cityHall)) {
+            throw new IllegalArgumentException("City Hall it not in TransactionPartyList");
+        }
 
-        List<TransactionParty> children = getCityHallChildren(cityHall);
-        BigDecimal totalPayment = BigDecimal.ZERO;
+        Long totalPaymentCents = cityHallPaymentTotals.getTotalInCents(cityHall.getIdentifier());
+        if (totalPaymentCents == null) {
+            return BigDecimal.ZERO;
+        }
+        return Money.toBigDecimal(totalPaymentCents);
+    }
 
-        for (TransactionParty child : children) {
-            BigDecimal childPayment = childCostCalculator.calculateMonthlyCost(child);
-            totalPayment = totalPayment.add(childPayment);
+    /**
+     * Removes the listeners of this ApamAdmin from its AccountDirectory and the child accounts.
+     * City Hall payments cannot be calculated and children cannot be added after closing, closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        cityHallPaymentTotals.close();
+    }
+
+    /**
+     * Calculates the payment of every registered city hall using the common ForkJoinPool.
+     *
+     * @return Map of City Hall to the value of its payment, in the order the city halls were registered
+     *
+     * @see #calculateAllCityHallPayments(ExecutorService)
+     */
+    public Map<TransactionParty, BigDecimal> calculateAllCityHallPayments() {
+        return calculateAllCityHallPayments(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates the payment of every registered city hall following these rules:
+     * 1. Each city hall payment is calculated as a separated task on the executor
+     * 2. Each payment is the same as the one returned by calculateCityHallPayment
+     * 3. No children or parties should be added while the payments are being calculated
+     *
+     * @param executor ExecutorService that runs the calculation of each city hall
+     *
+     * @return Map of City Hall to the value of its payment, in the order the city halls were registered
+     *
+     * @throws NullPointerException If the executor is null
+     * @throws IllegalStateException If the calculation is interrupted
+     */
+    public Map<TransactionParty, BigDecimal> calculateAllCityHallPayments(final ExecutorService executor) throws NullPointerException, IllegalStateException {
+        Objects.requireNonNull(executor, "Executor cannot be null");
+
+        List<TransactionParty> cityHalls = getTransactionPartyList(TransactionPartyType.CITY_HALL);
+        List<Future<BigDecimal>> payments = new ArrayList<>(cityHalls.size());
+        for (TransactionParty cityHall : cityHalls) {
+            payments.add(executor.submit(() -> calculateCityHallPayment(cityHall)));
         }
 
-        return totalPayment;
+        Map<TransactionParty, BigDecimal> cityHallPayments = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < cityHalls.size(); i++) {
+                cityHallPayments.put(cityHalls.get(i), payments.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            payments.forEach(payment -> payment.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("City Hall payments calculation was interrupted", e);
+        } catch (ExecutionException e) {
+            payments.forEach(payment -> payment.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("City Hall payments calculation failed", e.getCause());
+        }
+        return cityHallPayments;
     }
 }
-
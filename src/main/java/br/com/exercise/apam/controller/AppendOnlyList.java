@@ -0,0 +1,97 @@
+package br.com.exercise.apam.controller;
+
+import java.util.*;
+
+/**
+ * Read-only List that only grows at its end, read without locking while elements are appended.
+ *
+ * Elements are kept in fixed size chunks that are never copied when the list grows, so appending takes constant
+ * time no matter how big the list is. Appends are serialized on the list and the size is volatile and written after
+ * the element, so readers only see fully published elements. Iterators and spliterators work on the elements present
+ * when they are created, so they never throw ConcurrentModificationException.
+ *
+ * @param <E> Type of the elements
+ */
+final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[1][];
+    private volatile int size;
+
+    /**
+     * Adds an element to the end of the list.
+     *
+     * @param element Element to be added
+     *
+     * @throws NullPointerException if element is null
+     * @throws IllegalStateException if the list is full
+     */
+    synchronized void append(final E element) {
+        Objects.requireNonNull(element, "Element cannot be null");
+
+        int index = size;
+        if (index == Integer.MAX_VALUE) {
+            throw new IllegalStateException("List is full");
+        }
+        int chunk = index >>> CHUNK_SHIFT;
+        Object[][] currentChunks = chunks;
+        if (chunk == currentChunks.length) {
+            currentChunks = Arrays.copyOf(currentChunks, currentChunks.length * 2);
+        }
+        if (currentChunks[chunk] == null) {
+            currentChunks[chunk] = new Object[CHUNK_SIZE];
+        }
+        currentChunks[chunk][index & CHUNK_MASK] = element;
+        chunks = currentChunks;
+        size = index + 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new BoundedIterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        BoundedIterator iterator = new BoundedIterator();
+        return Spliterators.spliterator(iterator, iterator.bound, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Iterator over the elements present when it was created.
+     */
+    private final class BoundedIterator implements Iterator<E> {
+        private final int bound = size;
+        private int cursor;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < bound;
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= bound) {
+                throw new NoSuchElementException();
+            }
+            return get(cursor++);
+        }
+    }
+}
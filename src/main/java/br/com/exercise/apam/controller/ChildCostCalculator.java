@@ -1,25 +1,66 @@
 package br.com.exercise.apam.controller;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Money;
 import br.com.exercise.apam.model.TransactionParty;
 import br.com.exercise.apam.model.TransactionPartyType;
 
 /**
  * This Class Calculates the Cost of each child
+ *
+ * The base cost by age comes from the TariffTable of the TariffSchedule effective on the current date.
+ *
+ * Calculated costs are cached by child id. A cached cost is reused while the child age, the tariff, the child account
+ * and the account version are the same ones used to calculate it, so any transaction added to the account,
+ * any age change or a new tariff becoming effective makes the cost to be calculated again.
+ *
+ * Costs are calculated with centavos in a primitive long, see {@link Money}.
  */
 public final class ChildCostCalculator {
 
-    private final AccountController accountController;
+    private final AccountDirectory accountDirectory;
+    private final TariffSchedule tariffSchedule;
+    private final Clock clock;
+    private final Map<Identifier, CachedCost> costCache;
+    private final AtomicLong cacheHits;
+    private final AtomicLong cacheMisses;
 
     /**
      * Build a new ChildCostCalculator
      *
-     * @param accountController AccountController to retrieve child accounts
+     * @param accountDirectory AccountDirectory to retrieve child accounts
      */
-    public ChildCostCalculator(AccountController accountController) {
-        this.accountController = accountController;
+    public ChildCostCalculator(AccountDirectory accountDirectory) {
+        this(accountDirectory, TariffSchedule.DEFAULT, Clock.systemUTC());
+    }
+
+    /**
+     * Build a new ChildCostCalculator that uses the tariff of the schedule effective on the current date of the clock.
+     *
+     * @param accountDirectory AccountDirectory to retrieve child accounts
+     * @param tariffSchedule TariffSchedule with the base costs by age
+     * @param clock Clock used to find the effective tariff
+     *
+     * @throws NullPointerException if the tariffSchedule or the clock are null
+     */
+    public ChildCostCalculator(final AccountDirectory accountDirectory, final TariffSchedule tariffSchedule, final Clock clock) {
+        this.accountDirectory = accountDirectory;
+        this.tariffSchedule = Objects.requireNonNull(tariffSchedule, "tariffSchedule cannot be null");
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+        this.costCache = new ConcurrentHashMap<>();
+        this.cacheHits = new AtomicLong();
+        this.cacheMisses = new AtomicLong();
     }
 
     /**
@@ -29,6 +70,8 @@ public final class ChildCostCalculator {
      * 3. If the child has a bank account, deduct 10% of the total balance from the payment (ex. 10 years + R$1000 on bank account = R$ 1400).
      * 4. The Result should be rounded to 2 decimal places with Floor Precision (ex. R$2.225 = R$2.22)
      *
+     * The values of rules 1 and 2 are the ones of {@link TariffTable#DEFAULT}, the effective TariffTable is used instead.
+     *
      * @param transactionParty TransactionParty representing the child that the cost will be calculated.
      *
      * @return BigDecimal representing the monthly cost of the child.
@@ -36,27 +79,238 @@ public final class ChildCostCalculator {
      * @throws IllegalArgumentException if the Person is not a Child.
      */
     public BigDecimal calculateMonthlyCost(final TransactionParty transactionParty) {
+        return getMonthlyCost(transactionParty).cost;
+    }
+
+    /**
+     * Calculates the monthly cost of a child in centavos, following the same rules of {@link #calculateMonthlyCost(TransactionParty)}.
+     *
+     * @param transactionParty TransactionParty representing the child that the cost will be calculated.
+     *
+     * @return long representing the monthly cost of the child in centavos.
+     *
+     * @throws IllegalArgumentException if the Person is not a Child.
+     */
+    public long calculateMonthlyCostInCents(final TransactionParty transactionParty) {
+        return getMonthlyCost(transactionParty).costCents;
+    }
+
+    /**
+     * Calculates the monthly cost of many children in centavos, following the same rules of
+     * {@link #calculateMonthlyCost(TransactionParty)} and returning exactly the same values.
+     *
+     * The ages and the account deductions are gathered into primitive arrays first, then all costs are calculated
+     * in a single loop without method calls or branches. When every age is in the TariffTable array the base costs
+     * are read from it, otherwise they are calculated with the tariff formula. The cache is not used.
+     *
+     * @param children Children whose costs will be calculated
+     *
+     * @return long array with the monthly cost of each child in centavos, in the order of the list
+     *
+     * @throws NullPointerException if the list or any of its children is null.
+     * @throws IllegalArgumentException if any TransactionParty is not a Child or has a negative age.
+     */
+    public long[] calculateMonthlyCostsInCents(final List<? extends TransactionParty> children) {
+        Objects.requireNonNull(children, "children cannot be null");
+
+        int size = children.size();
+        int[] ages = new int[size];
+        long[] deductionsCents = new long[size];
+        int maxAge = 0;
+        long minDeductionCents = 0;
+        for (int i = 0; i < size; i++) {
+            TransactionParty child = Objects.requireNonNull(children.get(i), "child cannot be null");
+            if (child.getType() != TransactionPartyType.CHILD) {
+                throw new IllegalArgumentException("TransactionParty type is not allowed");
+            }
+            int age = child.getAge();
+            if (age < 0) {
+                throw new IllegalArgumentException("Age cannot be negative");
+            }
+            ages[i] = age;
+            maxAge = Math.max(maxAge, age);
+            Account account = accountDirectory.getAccount(child);
+            if (account != null) {
+                deductionsCents[i] = Money.toCents(account.getBalance().movePointLeft(1), RoundingMode.CEILING);
+                minDeductionCents = Math.min(minDeductionCents, deductionsCents[i]);
+            }
+        }
+
+        TariffTable tariff = getTariffTable();
+        long[] costsCents = new long[size];
+        if (!fitsInLong(tariff, maxAge, minDeductionCents)) {
+            for (int i = 0; i < size; i++) {
+                costsCents[i] = calculateMonthlyCostInCents(tariff.getBaseCostInCents(ages[i]), deductionsCents[i]);
+            }
+        } else if (maxAge <= TariffTable.TABLE_MAX_AGE) {
+            calculateMonthlyCostsInCents(tariff.getBaseCostTable(), ages, deductionsCents, costsCents);
+        } else {
+            calculateMonthlyCostsInCents(tariff, ages, deductionsCents, costsCents);
+        }
+        return costsCents;
+    }
+
+    /**
+     * Removes the cached cost of a child, so it is calculated again on the next call.
+     *
+     * @param transactionParty TransactionParty representing the child.
+     *
+     * @throws NullPointerException if the TransactionParty is null.
+     */
+    public void invalidate(final TransactionParty transactionParty) {
+        Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
+
+        costCache.remove(transactionParty.getIdentifier());
+    }
+
+    /**
+     * Removes all cached costs.
+     */
+    public void invalidateAll() {
+        costCache.clear();
+    }
+
+    /**
+     * Returns the TariffTable effective on the current date of the clock.
+     *
+     * @return TariffTable used to calculate the costs
+     *
+     * @throws IllegalStateException if the schedule has no tariff effective on the current date
+     */
+    public TariffTable getTariffTable() {
+        return tariffSchedule.getTariffAt(LocalDate.now(clock));
+    }
+
+    /**
+     * Returns how many costs were returned from the cache.
+     *
+     * @return long representing the number of cache hits.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Returns how many costs had to be calculated.
+     *
+     * @return long representing the number of cache misses.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    private CachedCost getMonthlyCost(final TransactionParty transactionParty) {
         if (transactionParty.getType() != TransactionPartyType.CHILD) {
             throw new IllegalArgumentException("TransactionParty type is not allowed");
         }
 
         int age = transactionParty.getAge();
-        BigDecimal baseCost = BigDecimal.valueOf(150).multiply(BigDecimal.valueOf(age));
+        TariffTable tariff = getTariffTable();
+        Account account = accountDirectory.getAccount(transactionParty);
+        long accountVersion = account == null ? 0 : account.getVersion();
 
-        if (age <= 5) {
-            baseCost = baseCost.add(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(age)));
+        CachedCost cachedCost = costCache.get(transactionParty.getIdentifier());
+        if (cachedCost != null && cachedCost.isValidFor(age, tariff, account, accountVersion)) {
+            cacheHits.incrementAndGet();
+            return cachedCost;
         }
+        cacheMisses.incrementAndGet();
 
-        BigDecimal accountDeduction = BigDecimal.ZERO;
-        Account account = accountController.getAccount(transactionParty);
+        long monthlyCostCents = calculateMonthlyCostInCents(tariff.getBaseCostInCents(age), account);
+        cachedCost = new CachedCost(age, tariff, account, accountVersion, monthlyCostCents);
+        costCache.put(transactionParty.getIdentifier(), cachedCost);
+        return cachedCost;
+    }
+
+    /**
+     * Since the base cost is a whole number of centavos, flooring (base - deduction) to centavos is the same as
+     * subtracting the deduction rounded up to centavos, so the only BigDecimal operation left is the 10% of the balance.
+     */
+    private static long calculateMonthlyCostInCents(final long baseCostCents, final Account account) {
+        long accountDeductionCents = 0;
 
         if (account != null) {
-            BigDecimal accountBalance = account.getBalance();
-            BigDecimal deduction = accountBalance.multiply(BigDecimal.valueOf(0.10));
-            accountDeduction = deduction.min(baseCost);
+            BigDecimal deduction = account.getBalance().movePointLeft(1);
+            accountDeductionCents = Money.toCents(deduction, RoundingMode.CEILING);
         }
 
-        BigDecimal monthlyCost = baseCost.subtract(accountDeduction);
-        return monthlyCost.setScale(2, BigDecimal.ROUND_FLOOR);
+        return calculateMonthlyCostInCents(baseCostCents, accountDeductionCents);
+    }
+
+    private static long calculateMonthlyCostInCents(final long baseCostCents, final long accountDeductionCents) {
+        return Math.subtractExact(baseCostCents, Math.min(accountDeductionCents, baseCostCents));
+    }
+
+    /**
+     * Batch form of the cost rules for ages in the TariffTable array, reading each base cost from it.
+     * Callers must check that every age is in the array and with {@link #fitsInLong(TariffTable, int, long)}
+     * that no subtraction overflows.
+     */
+    private static void calculateMonthlyCostsInCents(final long[] baseCostTable, final int[] ages, final long[] deductionsCents,
+                                                     final long[] costsCents) {
+        for (int i = 0; i < ages.length; i++) {
+            long baseCostCents = baseCostTable[ages[i]];
+            costsCents[i] = baseCostCents - Math.min(deductionsCents[i], baseCostCents);
+        }
+    }
+
+    /**
+     * Batch form of the cost rules, kept to plain arithmetic on arrays so the loop can be vectorized.
+     * The early childhood test is turned into a 0 or 1 multiplier, and the deduction is capped with Math.min.
+     * Callers must check with {@link #fitsInLong(TariffTable, int, long)} that no base cost or subtraction overflows.
+     */
+    private static void calculateMonthlyCostsInCents(final TariffTable tariff, final int[] ages, final long[] deductionsCents,
+                                                     final long[] costsCents) {
+        long costPerYearCents = tariff.getCostPerYearCents();
+        long earlyChildhoodCostPerYearCents = tariff.getEarlyChildhoodCostPerYearCents();
+        int earlyChildhoodMaxAge = tariff.getEarlyChildhoodMaxAge();
+        for (int i = 0; i < ages.length; i++) {
+            long age = ages[i];
+            long earlyChildhood = (earlyChildhoodMaxAge - age) >>> 63 ^ 1;
+            long baseCostCents = age * costPerYearCents + earlyChildhood * age * earlyChildhoodCostPerYearCents;
+            costsCents[i] = baseCostCents - Math.min(deductionsCents[i], baseCostCents);
+        }
+    }
+
+    /**
+     * Checks that the cost of every age up to maxAge fits in a long. Since all tariff values are non negative, the
+     * highest base cost is at most maxAge * (costPerYear + earlyChildhoodCostPerYear), and the highest cost is that
+     * base minus the lowest deduction, which is only negative for accounts with a negative balance.
+     */
+    private static boolean fitsInLong(final TariffTable tariff, final int maxAge, final long minDeductionCents) {
+        try {
+            long maxBaseCostCents = Math.multiplyExact((long) maxAge,
+                    Math.addExact(tariff.getCostPerYearCents(), tariff.getEarlyChildhoodCostPerYearCents()));
+            Math.subtractExact(maxBaseCostCents, minDeductionCents);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cost of a child and the inputs used to calculate it.
+     */
+    private static final class CachedCost {
+        private final int age;
+        private final TariffTable tariff;
+        private final Account account;
+        private final long accountVersion;
+        private final long costCents;
+        private final BigDecimal cost;
+
+        private CachedCost(final int age, final TariffTable tariff, final Account account, final long accountVersion,
+                           final long costCents) {
+            this.age = age;
+            this.tariff = tariff;
+            this.account = account;
+            this.accountVersion = accountVersion;
+            this.costCents = costCents;
+            this.cost = Money.toBigDecimal(costCents);
+        }
+
+        private boolean isValidFor(final int age, final TariffTable tariff, final Account account, final long accountVersion) {
+            return this.age == age && this.tariff == tariff && this.account == account && this.accountVersion == accountVersion;
+        }
     }
 }
@@ -0,0 +1,197 @@
+package br.com.exercise.apam.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+
+/**
+ * Keeps the payment total of each City Hall in centavos, so reading it does not walk through all its children.
+ *
+ * The cost of a child only changes when its account changes or a new tariff becomes effective, since the age of
+ * a TransactionParty is fixed. Posting to a child account only marks the child as dirty and queues it on its City Hall,
+ * so the ChildCostCalculator never runs while the account lock is held. Reading a total recalculates the queued
+ * children, outside any account lock, and applies the difference to their last applied cost. A child is unmarked
+ * before its cost is calculated, so a change made meanwhile queues it again and is applied by the next read.
+ * When the effective tariff changes, every child is queued again on the next read.
+ *
+ * The totals listen to the AccountDirectory and to the tracked child accounts until they are closed, so the owner
+ * (an ApamAdmin) must close them when it is discarded, otherwise the listeners are kept by the accounts.
+ */
+final class CityHallPaymentTotals implements AccountListener {
+
+    private final AccountDirectory accountDirectory;
+    private final ChildCostCalculator childCostCalculator;
+    private final Map<Identifier, CityHallTotal> totals;
+    private final Map<Identifier, TrackedChild> trackedChildren;
+    private volatile TariffTable appliedTariff;
+    private volatile boolean closed;
+
+    CityHallPaymentTotals(final AccountDirectory accountDirectory, final ChildCostCalculator childCostCalculator) {
+        this.accountDirectory = accountDirectory;
+        this.childCostCalculator = childCostCalculator;
+        this.totals = new ConcurrentHashMap<>();
+        this.trackedChildren = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts tracking a child of a City Hall, its cost is added to the City Hall total on the next read.
+     * The child must not be tracked yet.
+     *
+     * @throws IllegalStateException if the totals are closed
+     */
+    void addChild(final Identifier cityHallId, final TransactionParty child) {
+        checkOpen();
+        CityHallTotal total = totals.computeIfAbsent(cityHallId, k -> new CityHallTotal());
+        TrackedChild trackedChild = new TrackedChild(total, child);
+        trackedChildren.put(child.getIdentifier(), trackedChild);
+
+        Account account = accountDirectory.getAccount(child);
+        if (account != null) {
+            trackedChild.listenTo(account);
+        }
+        trackedChild.markDirty();
+    }
+
+    /**
+     * Returns the payment total of a City Hall in centavos, recalculating the children changed since the last read.
+     *
+     * @return long with the total or null if the City Hall has no children
+     *
+     * @throws IllegalStateException if the totals are closed
+     */
+    Long getTotalInCents(final Identifier cityHallId) {
+        checkOpen();
+        TariffTable tariff = childCostCalculator.getTariffTable();
+        if (tariff != appliedTariff) {
+            markAllDirty(tariff);
+        }
+        CityHallTotal total = totals.get(cityHallId);
+        return total == null ? null : total.refresh();
+    }
+
+    /**
+     * Stops listening to the AccountDirectory and to the tracked child accounts. Closing twice has no effect.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        accountDirectory.removeAccountListener(this);
+        for (TrackedChild trackedChild : trackedChildren.values()) {
+            trackedChild.stopListening();
+        }
+    }
+
+    /**
+     * Checks the totals are not closed.
+     *
+     * @throws IllegalStateException if the totals are closed
+     */
+    void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("City Hall payment totals are closed");
+        }
+    }
+
+    private synchronized void markAllDirty(final TariffTable tariff) {
+        if (tariff == appliedTariff) {
+            return;
+        }
+        appliedTariff = tariff;
+        for (TrackedChild trackedChild : trackedChildren.values()) {
+            trackedChild.markDirty();
+        }
+    }
+
+    @Override
+    public void onAccountAdded(final TransactionParty owner, final Account account) {
+        // Only the listener of a tracked child needs the transactions of the account
+        account.removeListener(this);
+        TrackedChild trackedChild = trackedChildren.get(owner.getIdentifier());
+        if (trackedChild != null) {
+            trackedChild.listenTo(account);
+            trackedChild.markDirty();
+        }
+    }
+
+    @Override
+    public void onTransactionAdded(final Account account, final Transaction transaction) {
+        // Transactions are handled by the listener of each tracked child account
+    }
+
+    /**
+     * Total of a City Hall and the children whose cost must be recalculated.
+     */
+    private final class CityHallTotal {
+        private final Queue<TrackedChild> dirtyChildren = new ConcurrentLinkedQueue<>();
+        private long totalInCents;
+
+        private synchronized long refresh() {
+            TrackedChild trackedChild;
+            while ((trackedChild = dirtyChildren.poll()) != null) {
+                trackedChild.dirty.set(false);
+                long cost = childCostCalculator.calculateMonthlyCostInCents(trackedChild.child);
+                totalInCents += cost - trackedChild.appliedCost;
+                trackedChild.appliedCost = cost;
+            }
+            return totalInCents;
+        }
+    }
+
+    /**
+     * Child of a City Hall, listening to the transactions of its account.
+     */
+    private final class TrackedChild implements AccountListener {
+        private final CityHallTotal total;
+        private final TransactionParty child;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final AtomicBoolean listening = new AtomicBoolean();
+        private volatile Account account;
+        private long appliedCost;
+
+        private TrackedChild(final CityHallTotal total, final TransactionParty child) {
+            this.total = total;
+            this.child = child;
+        }
+
+        private void listenTo(final Account account) {
+            if (listening.compareAndSet(false, true)) {
+                this.account = account;
+                account.addListener(this);
+            }
+        }
+
+        private void stopListening() {
+            Account listenedAccount = account;
+            if (listenedAccount != null) {
+                listenedAccount.removeListener(this);
+            }
+        }
+
+        private void markDirty() {
+            if (dirty.compareAndSet(false, true)) {
+                total.dirtyChildren.add(this);
+            }
+        }
+
+        @Override
+        public void onTransactionAdded(final Account account, final Transaction transaction) {
+            markDirty();
+        }
+
+        @Override
+        public void onTransactionsAdded(final Account account, final List<Transaction> transactions) {
+            markDirty();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.exercise.apam.controller;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads the elements of a view in pages of a fixed size, walking a single iterator of the view.
+ *
+ * The cursor keeps the semantics of the view iterator: over concurrent views, elements added or removed while the
+ * cursor is open may or may not be returned, but no element is returned twice and no exception is thrown.
+ * It is not thread safe, each reader should open its own cursor.
+ *
+ * @param <T> Type of the elements
+ */
+public final class PageCursor<T> {
+
+    private final Iterator<T> iterator;
+    private final int pageSize;
+
+    /**
+     * Builds a new PageCursor over an Iterator.
+     *
+     * @param iterator Iterator of the elements to be paged
+     * @param pageSize Maximum number of elements of each page
+     *
+     * @throws NullPointerException if the iterator is null
+     * @throws IllegalArgumentException if pageSize is lower than 1
+     */
+    public PageCursor(final Iterator<T> iterator, final int pageSize) {
+        Objects.requireNonNull(iterator, "iterator cannot be null");
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be greater than 0");
+        }
+        this.iterator = iterator;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Returns if there are more elements to be read.
+     *
+     * @return True if there is another page or False if not.
+     */
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    /**
+     * Returns the next page of elements.
+     *
+     * @return List with up to pageSize elements, only the last page may have fewer elements
+     *
+     * @throws NoSuchElementException if there are no more elements
+     */
+    public List<T> nextPage() {
+        if (!iterator.hasNext()) {
+            throw new NoSuchElementException("There are no more pages");
+        }
+        List<T> page = new ArrayList<>(pageSize);
+        while (page.size() < pageSize && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,311 @@
+package br.com.exercise.apam.controller;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+
+/**
+ * Splits the Accounts across independent AccountController shards, chosen by the hash of the owner id.
+ *
+ * Each shard has a single writer thread: accounts and transactions are added asynchronously on the thread of the
+ * owner shard, so writes to different shards do not share locks and writes to the same shard are applied in the
+ * order they were submitted. Reads go straight to the shard and see a write once its future is completed.
+ * As an {@link AccountDirectory} it can back an ApamAdmin, whose listeners are then called from the writer threads.
+ */
+public final class ShardedAccountController implements AccountDirectory, Closeable {
+
+    private final AccountController[] shards;
+    private final ExecutorService[] writers;
+
+    /**
+     * Builds a new ShardedAccountController with empty shards and starts their writer threads.
+     *
+     * @param shardCount Number of shards
+     *
+     * @throws IllegalArgumentException if shardCount is lower than 1
+     */
+    public ShardedAccountController(final int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be greater than 0");
+        }
+        this.shards = new AccountController[shardCount];
+        this.writers = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            final String threadName = "account-shard-" + i;
+            shards[i] = new AccountController();
+            writers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return int representing the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the AccountController shard that holds the Account of a TransactionParty.
+     * Accounts should be added through this ShardedAccountController, so they are written by the shard thread.
+     *
+     * @param transactionParty TransactionParty that owns the account
+     *
+     * @return AccountController of the shard
+     *
+     * @throws NullPointerException if the TransactionParty is null
+     */
+    public AccountController getShard(final TransactionParty transactionParty) {
+        Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
+
+        return shards[shardIndex(transactionParty.getIdentifier())];
+    }
+
+    /**
+     * Returns an Account
+     *
+     * @param transactionParty TransactionParty that owns the account
+     *
+     * @return Account object or null if the account is not found
+     *
+     * @throws NullPointerException if the TransactionParty is null
+     */
+    @Override
+    public Account getAccount(final TransactionParty transactionParty) {
+        return getShard(transactionParty).getAccount(transactionParty);
+    }
+
+    /**
+     * Returns an Account by it's transactionPartyId
+     *
+     * @param transactionPartyId Id of the TransactionParty that owns the account
+     *
+     * @return Account object or null if the account is not found
+     *
+     * @throws NullPointerException if the id is null
+     */
+    @Override
+    public Account getAccount(final String transactionPartyId) {
+        Objects.requireNonNull(transactionPartyId, "TransactionParty cannot be null");
+
+        return shards[shardIndex(Identifier.of(transactionPartyId))].getAccount(transactionPartyId);
+    }
+
+    /**
+     * Returns the Accounts registered on every shard.
+     * Each shard is read on its writer thread, so the accounts added before this call are included.
+     *
+     * @return List of Registered Accounts, grouped by shard
+     *
+     * @throws IllegalStateException if the controller is closed
+     */
+    public List<Account> getAccounts() {
+        List<CompletableFuture<List<Account>>> shardAccounts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            shardAccounts.add(submit(i, shards[i]::getAccounts));
+        }
+
+        List<Account> accounts = new ArrayList<>();
+        for (CompletableFuture<List<Account>> future : shardAccounts) {
+            accounts.addAll(join(future));
+        }
+        return accounts;
+    }
+
+    /**
+     * Performs an action for each Account of every shard, reading the shards from the calling thread.
+     * Accounts added while it runs may or may not be visited.
+     *
+     * @param action BiConsumer receiving the TransactionParty that owns the account and the Account
+     *
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEachAccount(final BiConsumer<TransactionParty, Account> action) {
+        Objects.requireNonNull(action, "Action cannot be null");
+
+        for (AccountController shard : shards) {
+            shard.forEachAccount(action);
+        }
+    }
+
+    /**
+     * Adds a new Account for a TransactionParty on its shard, following the rules of
+     * {@link AccountController#addAccount(TransactionParty, Account)}.
+     *
+     * @param transactionParty TransactionParty that owns the account
+     * @param account Account to be added
+     *
+     * @return CompletableFuture completed once the account is added
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalStateException if the controller is closed
+     */
+    public CompletableFuture<Void> addAccount(final TransactionParty transactionParty, final Account account) {
+        Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
+        Objects.requireNonNull(account, "Account cannot be null");
+
+        int shard = shardIndex(transactionParty.getIdentifier());
+        return submit(shard, () -> {
+            shards[shard].addAccount(transactionParty, account);
+            return null;
+        });
+    }
+
+    /**
+     * Adds a new Transaction to the Account of its source on its shard, following the rules of
+     * {@link AccountController#addTransaction(TransactionParty, Transaction)}.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transaction Transaction to be added
+     *
+     * @return CompletableFuture completed once the transaction is added, or completed with IllegalArgumentException
+     * if the source does not have an Account or the Transaction is not valid for it
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalStateException if the controller is closed
+     */
+    public CompletableFuture<Void> addTransaction(final TransactionParty source, final Transaction transaction) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(transaction, "Transaction cannot be null");
+
+        int shard = shardIndex(source.getIdentifier());
+        return submit(shard, () -> {
+            shards[shard].addTransaction(source, transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Adds a new Transaction on the writer thread of its shard, waiting until it is added.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transaction Transaction to be added
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the source does not have an Account or the Transaction is not valid for it
+     * @throws IllegalStateException if the controller is closed
+     */
+    @Override
+    public void postTransaction(final TransactionParty source, final Transaction transaction) {
+        join(addTransaction(source, transaction));
+    }
+
+    /**
+     * Adds a batch of Transactions to the Account of their source on its shard, following the rules of
+     * {@link AccountController#addTransactions(TransactionParty, Collection)}.
+     *
+     * @param source TransactionParty that owns the account
+     * @param transactions Transactions to be added
+     *
+     * @return CompletableFuture completed with the number of transactions added, or completed with
+     * IllegalArgumentException if the source does not have an Account or any Transaction is not valid for it
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalStateException if the controller is closed
+     */
+    public CompletableFuture<Integer> addTransactions(final TransactionParty source, final Collection<Transaction> transactions) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(transactions, "Transactions cannot be null");
+
+        int shard = shardIndex(source.getIdentifier());
+        return submit(shard, () -> shards[shard].addTransactions(source, transactions));
+    }
+
+    /**
+     * Registers a listener on every shard for accounts added from now on and their transactions.
+     * The listener is called from the writer threads of the shards, so it must be thread safe.
+     *
+     * @param listener AccountListener to be notified
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    @Override
+    public void addAccountListener(final AccountListener listener) {
+        Objects.requireNonNull(listener, "AccountListener cannot be null");
+
+        for (AccountController shard : shards) {
+            shard.addAccountListener(listener);
+        }
+    }
+
+    /**
+     * Removes a registered listener from every shard and its accounts.
+     *
+     * @param listener AccountListener to be removed
+     *
+     * @throws NullPointerException if the listener is null
+     */
+    @Override
+    public void removeAccountListener(final AccountListener listener) {
+        Objects.requireNonNull(listener, "AccountListener cannot be null");
+
+        for (AccountController shard : shards) {
+            shard.removeAccountListener(listener);
+        }
+    }
+
+    /**
+     * Stops the writer threads after the writes already submitted are applied.
+     *
+     * @throws IllegalStateException if it is interrupted while waiting for the writer threads
+     */
+    @Override
+    public void close() {
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        try {
+            for (ExecutorService writer : writers) {
+                writer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ShardedAccountController close was interrupted", e);
+        }
+    }
+
+    private int shardIndex(final Identifier transactionPartyId) {
+        return (transactionPartyId.hashCode() & Integer.MAX_VALUE) % shards.length;
+    }
+
+    private <T> CompletableFuture<T> submit(final int shard, final Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, writers[shard]);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("ShardedAccountController is closed", e);
+        }
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.exercise.apam.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * TariffTables and the dates they are effective from. A tariff is used from its effective date until the
+ * effective date of the next one.
+ *
+ * Schedules can be loaded from a CSV file, so tariffs can change without recompiling. The first line is a header
+ * and is skipped, each following line has the columns effective_from (ISO date), cost_per_year,
+ * early_childhood_cost_per_year (both in centavos) and early_childhood_max_age. Blank lines are ignored.
+ */
+public final class TariffSchedule {
+
+    /**
+     * Schedule with only {@link TariffTable#DEFAULT}, effective since always.
+     */
+    public static final TariffSchedule DEFAULT = new TariffSchedule(Collections.singletonMap(LocalDate.MIN, TariffTable.DEFAULT));
+
+    private static final int COLUMNS = 4;
+
+    private final NavigableMap<LocalDate, TariffTable> tariffs;
+
+    /**
+     * Builds a new TariffSchedule.
+     *
+     * @param tariffs Map of effective date to the TariffTable effective from it
+     *
+     * @throws NullPointerException if the map or any of its keys or values are null
+     * @throws IllegalArgumentException if the map is empty
+     */
+    public TariffSchedule(final Map<LocalDate, TariffTable> tariffs) {
+        Objects.requireNonNull(tariffs, "tariffs cannot be null");
+        if (tariffs.isEmpty()) {
+            throw new IllegalArgumentException("TariffSchedule must have at least one tariff");
+        }
+
+        this.tariffs = new TreeMap<>();
+        for (Map.Entry<LocalDate, TariffTable> entry : tariffs.entrySet()) {
+            this.tariffs.put(Objects.requireNonNull(entry.getKey(), "effective date cannot be null"),
+                    Objects.requireNonNull(entry.getValue(), "tariff cannot be null"));
+        }
+    }
+
+    /**
+     * Loads a schedule from a CSV file, see the class documentation for its columns.
+     *
+     * @param reader Reader of the CSV file, it is not closed
+     *
+     * @return TariffSchedule with the tariffs of the file
+     *
+     * @throws IOException if the file cannot be read
+     * @throws NullPointerException if the reader is null
+     * @throws IllegalArgumentException if a line is not valid, with its line number, or the file has no tariffs
+     */
+    public static TariffSchedule load(final Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "reader cannot be null");
+
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<LocalDate, TariffTable> tariffs = new TreeMap<>();
+        int lineNumber = 1;
+        lines.readLine();
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != COLUMNS) {
+                throw new IllegalArgumentException("Line " + lineNumber + " must have " + COLUMNS + " columns");
+            }
+            try {
+                LocalDate effectiveFrom = LocalDate.parse(fields[0].trim());
+                TariffTable tariff = new TariffTable(Long.parseLong(fields[1].trim()), Long.parseLong(fields[2].trim()),
+                        Integer.parseInt(fields[3].trim()));
+                if (tariffs.put(effectiveFrom, tariff) != null) {
+                    throw new IllegalArgumentException("Effective date " + effectiveFrom + " is repeated");
+                }
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not valid: " + e.getMessage(), e);
+            }
+        }
+        return new TariffSchedule(tariffs);
+    }
+
+    /**
+     * Returns the TariffTable effective on a date.
+     *
+     * @param date Date to be searched
+     *
+     * @return TariffTable effective on the date
+     *
+     * @throws NullPointerException if the date is null
+     * @throws IllegalStateException if there is no tariff effective on the date
+     */
+    public TariffTable getTariffAt(final LocalDate date) {
+        Objects.requireNonNull(date, "date cannot be null");
+
+        Map.Entry<LocalDate, TariffTable> entry = tariffs.floorEntry(date);
+        if (entry == null) {
+            throw new IllegalStateException("There is no tariff effective on " + date);
+        }
+        return entry.getValue();
+    }
+}
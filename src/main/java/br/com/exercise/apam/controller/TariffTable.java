@@ -0,0 +1,113 @@
+package br.com.exercise.apam.controller;
+
+/**
+ * Base monthly cost of a child by age, in centavos, before the account deduction.
+ *
+ * The cost is a cost per year of age, plus an early childhood cost per year for children up to a maximum age.
+ * The table does not hold tariffs of its own: it is a cache of that formula for the three values of the schedule.
+ * Costs of the ages up to {@value #TABLE_MAX_AGE} are calculated once when the table is built and read from a
+ * primitive array, by single lookups and by the batch path of the ChildCostCalculator. Older ages are calculated
+ * on each call with the same formula.
+ */
+public final class TariffTable {
+
+    /**
+     * Highest age kept in the precalculated array.
+     */
+    public static final int TABLE_MAX_AGE = 21;
+
+    /**
+     * Tariff used when no schedule is configured: R$150 per year plus R$100 per year up to 5 years old.
+     */
+    public static final TariffTable DEFAULT = new TariffTable(150_00, 100_00, 5);
+
+    private final long costPerYearCents;
+    private final long earlyChildhoodCostPerYearCents;
+    private final int earlyChildhoodMaxAge;
+    private final long[] baseCostCents;
+
+    /**
+     * Builds a new TariffTable, precalculating the cost of each age up to {@value #TABLE_MAX_AGE}.
+     *
+     * @param costPerYearCents Cost for each year of age, in centavos
+     * @param earlyChildhoodCostPerYearCents Additional cost for each year of age of early childhood, in centavos
+     * @param earlyChildhoodMaxAge Highest age that is still early childhood
+     *
+     * @throws IllegalArgumentException if any of the values is negative
+     */
+    public TariffTable(final long costPerYearCents, final long earlyChildhoodCostPerYearCents, final int earlyChildhoodMaxAge) {
+        if (costPerYearCents < 0 || earlyChildhoodCostPerYearCents < 0 || earlyChildhoodMaxAge < 0) {
+            throw new IllegalArgumentException("Tariff values cannot be negative");
+        }
+        this.costPerYearCents = costPerYearCents;
+        this.earlyChildhoodCostPerYearCents = earlyChildhoodCostPerYearCents;
+        this.earlyChildhoodMaxAge = earlyChildhoodMaxAge;
+        this.baseCostCents = new long[TABLE_MAX_AGE + 1];
+        for (int age = 0; age <= TABLE_MAX_AGE; age++) {
+            baseCostCents[age] = calculateBaseCostInCents(age);
+        }
+    }
+
+    /**
+     * Returns the base monthly cost of a child of an age, in centavos.
+     *
+     * @param age Age of the child
+     *
+     * @return long representing the base cost in centavos
+     *
+     * @throws IllegalArgumentException if the age is negative
+     * @throws ArithmeticException if the cost does not fit in a long
+     */
+    public long getBaseCostInCents(final int age) {
+        if (age < 0) {
+            throw new IllegalArgumentException("Age cannot be negative");
+        }
+        if (age <= TABLE_MAX_AGE) {
+            return baseCostCents[age];
+        }
+        return calculateBaseCostInCents(age);
+    }
+
+    /**
+     * Returns the precalculated base costs in centavos, indexed by age up to {@value #TABLE_MAX_AGE}.
+     * The array is shared, callers must not modify it.
+     */
+    long[] getBaseCostTable() {
+        return baseCostCents;
+    }
+
+    /**
+     * Returns the Cost for each year of age, in centavos.
+     *
+     * @return long representing the cost per year in centavos
+     */
+    public long getCostPerYearCents() {
+        return costPerYearCents;
+    }
+
+    /**
+     * Returns the Additional cost for each year of age of early childhood, in centavos.
+     *
+     * @return long representing the early childhood cost per year in centavos
+     */
+    public long getEarlyChildhoodCostPerYearCents() {
+        return earlyChildhoodCostPerYearCents;
+    }
+
+    /**
+     * Returns the Highest age that is still early childhood.
+     *
+     * @return int representing the age
+     */
+    public int getEarlyChildhoodMaxAge() {
+        return earlyChildhoodMaxAge;
+    }
+
+    private long calculateBaseCostInCents(final int age) {
+        long cost = Math.multiplyExact(costPerYearCents, age);
+        if (age <= earlyChildhoodMaxAge) {
+            cost = Math.addExact(cost, Math.multiplyExact(earlyChildhoodCostPerYearCents, age));
+        }
+        return cost;
+    }
+}
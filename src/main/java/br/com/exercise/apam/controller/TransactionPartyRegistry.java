@@ -0,0 +1,133 @@
+package br.com.exercise.apam.controller;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+
+/**
+ * Keeps the TransactionParties registered on Apam indexed by id and by type.
+ *
+ * The registry is thread safe. Parties are added while holding the registry lock, so a party is in the id index
+ * before it is in the lists. The lists are append-only and never copied, so adding a party takes constant time even
+ * on bulk imports. Reads do not lock: the returned views can be iterated while parties are added without throwing
+ * ConcurrentModificationException, each iterator seeing the parties present when it was created.
+ */
+public final class TransactionPartyRegistry {
+
+    private final AppendOnlyList<TransactionParty> transactionPartyList;
+    private final Map<Identifier, TransactionParty> transactionPartiesById;
+    private final Map<TransactionPartyType, AppendOnlyList<TransactionParty>> transactionPartiesByType;
+
+    /**
+     * Builds a new empty TransactionPartyRegistry
+     */
+    public TransactionPartyRegistry() {
+        this.transactionPartyList = new AppendOnlyList<>();
+        this.transactionPartiesById = new ConcurrentHashMap<>();
+        this.transactionPartiesByType = new EnumMap<>(TransactionPartyType.class);
+        for (TransactionPartyType type : TransactionPartyType.values()) {
+            transactionPartiesByType.put(type, new AppendOnlyList<>());
+        }
+    }
+
+    /**
+     * Returns all registered TransactionParties in the order they were added.
+     *
+     * @return Read-only view of the TransactionParties, parties added later are visible through it
+     */
+    public List<TransactionParty> getTransactionParties() {
+        return transactionPartyList;
+    }
+
+    /**
+     * Returns the registered TransactionParties of a type in the order they were added.
+     *
+     * @param type TransactionPartyType to be searched
+     *
+     * @return Read-only view of the TransactionParties of the type, empty if none is registered yet
+     *
+     * @throws NullPointerException if type is null
+     */
+    public List<TransactionParty> getTransactionParties(final TransactionPartyType type) {
+        Objects.requireNonNull(type, "TransactionPartyType cannot be null");
+
+        return transactionPartiesByType.get(type);
+    }
+
+    /**
+     * Returns a registered TransactionParty by its id.
+     *
+     * @param transactionPartyId Id of the TransactionParty
+     *
+     * @return TransactionParty or null if it is not registered
+     *
+     * @throws NullPointerException if transactionPartyId is null
+     */
+    public TransactionParty getTransactionParty(final String transactionPartyId) {
+        Objects.requireNonNull(transactionPartyId, "TransactionPartyId cannot be null");
+
+        return transactionPartiesById.get(Identifier.of(transactionPartyId));
+    }
+
+    /**
+     * Returns a registered TransactionParty by its Identifier.
+     *
+     * @param transactionPartyId Identifier of the TransactionParty
+     *
+     * @return TransactionParty or null if it is not registered
+     *
+     * @throws NullPointerException if transactionPartyId is null
+     */
+    public TransactionParty getTransactionParty(final Identifier transactionPartyId) {
+        Objects.requireNonNull(transactionPartyId, "TransactionPartyId cannot be null");
+
+        return transactionPartiesById.get(transactionPartyId);
+    }
+
+    /**
+     * Checks if a TransactionParty with the same id is registered.
+     *
+     * @param transactionParty TransactionParty to be checked
+     *
+     * @return True if it is registered or False if not.
+     *
+     * @throws NullPointerException if transactionParty is null
+     */
+    public boolean contains(final TransactionParty transactionParty) {
+        Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
+
+        return transactionPartiesById.containsKey(transactionParty.getIdentifier());
+    }
+
+    /**
+     * Registers a TransactionParty, ignoring it if another one with the same id is already registered.
+     *
+     * @param transactionParty TransactionParty to be added
+     *
+     * @return True if it was added or False if it was already registered.
+     *
+     * @throws NullPointerException if transactionParty is null
+     */
+    public synchronized boolean add(final TransactionParty transactionParty) {
+        Objects.requireNonNull(transactionParty, "TransactionParty cannot be null");
+
+        if (transactionPartiesById.putIfAbsent(transactionParty.getIdentifier(), transactionParty) != null) {
+            return false;
+        }
+        transactionPartyList.append(transactionParty);
+        transactionPartiesByType.get(transactionParty.getType()).append(transactionParty);
+        return true;
+    }
+
+    /**
+     * Returns the number of registered TransactionParties.
+     *
+     * @return int representing the number of TransactionParties.
+     */
+    public int size() {
+        return transactionPartyList.size();
+    }
+}
@@ -0,0 +1,510 @@
+package br.com.exercise.apam.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParties;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Imports parties, accounts and transactions from CSV files into an ApamAdmin and its AccountController.
+ *
+ * Files are read line by line, the first line is a header and is skipped. Fields are separated by commas and can be
+ * quoted with double quotes, a quote inside a quoted field is written as two quotes. Fields cannot span lines.
+ * Every row is built with the model constructors, so it follows the same rules, rows that violate them are rejected
+ * and reported in the ImportResult instead of stopping the import. Only the first rejected rows, up to
+ * maxRejectedRows, are kept in the ImportResult, the others are only counted.
+ *
+ * Accounts and transactions are parsed in the calling thread and posted by a pool of threads. Rows are routed to the
+ * posting threads by the id of the account owner, so transactions of the same account are posted in file order.
+ * Rows are handed over in batches through bounded queues, so memory use does not depend on the file size.
+ * The transactions of a batch are posted with one addTransactions call per account, if the call rejects them they are
+ * posted again one by one to find the rejected rows. If a posting thread dies the import fails instead of waiting
+ * for it to take more batches.
+ */
+public final class BulkImporter {
+
+    private static final int PARTY_COLUMNS = 4;
+    private static final int ACCOUNT_COLUMNS = 4;
+    private static final int TRANSACTION_COLUMNS = 6;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_MAX_REJECTED_ROWS = 1000;
+    private static final int QUEUED_BATCHES_PER_THREAD = 4;
+    private static final long HAND_OVER_TIMEOUT_MILLIS = 100;
+    private static final List<Row> END_OF_ROWS = Collections.emptyList();
+
+    private final ApamAdmin apamAdmin;
+    private final AccountController accountController;
+    private final int postingThreads;
+    private final int batchSize;
+    private final int maxRejectedRows;
+
+    /**
+     * Builds a new BulkImporter with one posting thread per available processor.
+     *
+     * @param apamAdmin ApamAdmin that receives the imported rows
+     *
+     * @throws NullPointerException if apamAdmin is null
+     */
+    public BulkImporter(final ApamAdmin apamAdmin) {
+        this(apamAdmin, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Builds a new BulkImporter.
+     *
+     * @param apamAdmin ApamAdmin that receives the imported rows
+     * @param postingThreads Number of threads that post accounts and transactions
+     * @param batchSize Number of rows handed over to a posting thread at once
+     *
+     * @throws NullPointerException if apamAdmin is null
+     * @throws IllegalArgumentException if postingThreads or batchSize are lower than 1
+     */
+    public BulkImporter(final ApamAdmin apamAdmin, final int postingThreads, final int batchSize) {
+        this(apamAdmin, postingThreads, batchSize, DEFAULT_MAX_REJECTED_ROWS);
+    }
+
+    /**
+     * Builds a new BulkImporter that keeps at most maxRejectedRows rejected rows in each ImportResult.
+     *
+     * @param apamAdmin ApamAdmin that receives the imported rows
+     * @param postingThreads Number of threads that post accounts and transactions
+     * @param batchSize Number of rows handed over to a posting thread at once
+     * @param maxRejectedRows Number of rejected rows kept in the ImportResult, the ones with the lowest line numbers
+     *
+     * @throws NullPointerException if apamAdmin is null
+     * @throws IllegalArgumentException if postingThreads or batchSize are lower than 1 or maxRejectedRows is negative
+     */
+    public BulkImporter(final ApamAdmin apamAdmin, final int postingThreads, final int batchSize, final int maxRejectedRows) {
+        Objects.requireNonNull(apamAdmin, "apamAdmin cannot be null");
+        if (postingThreads < 1) {
+            throw new IllegalArgumentException("postingThreads must be greater than 0");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        if (maxRejectedRows < 0) {
+            throw new IllegalArgumentException("maxRejectedRows cannot be negative");
+        }
+
+        this.apamAdmin = apamAdmin;
+        this.accountController = apamAdmin.getAccountController();
+        this.postingThreads = postingThreads;
+        this.batchSize = batchSize;
+        this.maxRejectedRows = maxRejectedRows;
+    }
+
+    /**
+     * Imports parties with the columns: id, name, age, type.
+     * Parties are registered in the calling thread, in file order.
+     *
+     * @param reader Reader of the CSV file
+     *
+     * @return ImportResult with the imported and rejected rows
+     *
+     * @throws IOException if the file cannot be read
+     * @throws NullPointerException if reader is null
+     */
+    public ImportResult importParties(final Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "reader cannot be null");
+
+        long imported = 0;
+        RejectedRows rejected = new RejectedRows(maxRejectedRows);
+        BufferedReader lines = new BufferedReader(reader);
+        lines.readLine();
+        String line;
+        long lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                importParty(parseLine(line, PARTY_COLUMNS));
+                imported++;
+            } catch (RuntimeException e) {
+                rejected.add(lineNumber, e);
+            }
+        }
+        return rejected.toResult(imported);
+    }
+
+    /**
+     * Imports accounts with the columns: owner id, account id, number, type.
+     * The owner must be already registered in the ApamAdmin.
+     *
+     * @param reader Reader of the CSV file
+     *
+     * @return ImportResult with the imported and rejected rows
+     *
+     * @throws IOException if the file cannot be read, rows already parsed are still posted
+     * @throws IllegalStateException if the import is interrupted
+     * @throws NullPointerException if reader is null
+     */
+    public ImportResult importAccounts(final Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "reader cannot be null");
+
+        return importRows(reader, ACCOUNT_COLUMNS, this::importAccounts);
+    }
+
+    /**
+     * Imports transactions with the columns: account owner id, transaction id, description, value, subject, party id.
+     * The account owner must have an account and the party must be already registered in the ApamAdmin.
+     * Transactions already in the account are ignored and not counted as imported, so a file can be imported again.
+     *
+     * @param reader Reader of the CSV file
+     *
+     * @return ImportResult with the imported and rejected rows
+     *
+     * @throws IOException if the file cannot be read, rows already parsed are still posted
+     * @throws IllegalStateException if the import is interrupted
+     * @throws NullPointerException if reader is null
+     */
+    public ImportResult importTransactions(final Reader reader) throws IOException {
+        Objects.requireNonNull(reader, "reader cannot be null");
+
+        return importRows(reader, TRANSACTION_COLUMNS, this::importTransactions);
+    }
+
+    private void importParty(final String[] fields) {
+        TransactionPartyType type = TransactionPartyType.valueOf(fields[3]);
+        apamAdmin.addTransactionParty(TransactionParties.create(fields[0], fields[1], Integer.valueOf(fields[2]), type));
+    }
+
+    private void importAccount(final String[] fields) {
+        TransactionParty owner = getRequiredParty(fields[0]);
+        accountController.addAccount(owner, new Account(fields[1], fields[2], AccountType.valueOf(fields[3])));
+    }
+
+    private long importAccounts(final List<Row> batch, final RejectedRows rejected) {
+        long imported = 0;
+        for (Row row : batch) {
+            try {
+                importAccount(row.fields);
+                imported++;
+            } catch (RuntimeException e) {
+                rejected.add(row.lineNumber, e);
+            }
+        }
+        return imported;
+    }
+
+    private long importTransactions(final List<Row> batch, final RejectedRows rejected) {
+        Map<String, OwnerTransactions> transactionsByOwner = new LinkedHashMap<>();
+        for (Row row : batch) {
+            try {
+                TransactionParty owner = getRequiredParty(row.fields[0]);
+                TransactionParty party = getRequiredParty(row.fields[5]);
+                Transaction transaction = new Transaction(row.fields[1], row.fields[2], new BigDecimal(row.fields[3]),
+                        TransactionSubject.valueOf(row.fields[4]), party);
+                transactionsByOwner.computeIfAbsent(row.fields[0], k -> new OwnerTransactions(owner)).add(row, transaction);
+            } catch (RuntimeException e) {
+                rejected.add(row.lineNumber, e);
+            }
+        }
+
+        long imported = 0;
+        for (OwnerTransactions ownerTransactions : transactionsByOwner.values()) {
+            imported += postTransactions(ownerTransactions, rejected);
+        }
+        return imported;
+    }
+
+    private long postTransactions(final OwnerTransactions ownerTransactions, final RejectedRows rejected) {
+        try {
+            return accountController.addTransactions(ownerTransactions.owner, ownerTransactions.transactions);
+        } catch (RuntimeException e) {
+            // addTransactions adds none of them if any is rejected, already added ones are ignored when posted again
+            Account account = accountController.getAccount(ownerTransactions.owner);
+            long imported = 0;
+            for (int i = 0; i < ownerTransactions.transactions.size(); i++) {
+                Transaction transaction = ownerTransactions.transactions.get(i);
+                try {
+                    boolean duplicated = account != null && account.containsTransaction(transaction.getId());
+                    accountController.addTransaction(ownerTransactions.owner, transaction);
+                    if (!duplicated) {
+                        imported++;
+                    }
+                } catch (RuntimeException rowException) {
+                    rejected.add(ownerTransactions.rows.get(i).lineNumber, rowException);
+                }
+            }
+            return imported;
+        }
+    }
+
+    private TransactionParty getRequiredParty(final String transactionPartyId) {
+        TransactionParty transactionParty = apamAdmin.getTransactionParty(transactionPartyId);
+        if (transactionParty == null) {
+            throw new IllegalArgumentException("TransactionParty " + transactionPartyId + " is not registered");
+        }
+        return transactionParty;
+    }
+
+    private ImportResult importRows(final Reader reader, final int columns, final BatchHandler handler) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(postingThreads);
+        List<BlockingQueue<List<Row>>> queues = new ArrayList<>(postingThreads);
+        List<RejectedRows> postingRejected = new ArrayList<>(postingThreads);
+        List<Future<Long>> results = new ArrayList<>(postingThreads);
+        for (int i = 0; i < postingThreads; i++) {
+            BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES_PER_THREAD);
+            RejectedRows threadRejected = new RejectedRows(maxRejectedRows);
+            queues.add(queue);
+            postingRejected.add(threadRejected);
+            results.add(executor.submit(() -> postRows(queue, handler, threadRejected)));
+        }
+
+        RejectedRows rejected = new RejectedRows(maxRejectedRows);
+        long imported = 0;
+        try {
+            List<List<Row>> batches = new ArrayList<>(postingThreads);
+            for (int i = 0; i < postingThreads; i++) {
+                batches.add(new ArrayList<>(batchSize));
+            }
+            try {
+                parseRows(reader, columns, queues, results, batches, rejected);
+            } finally {
+                for (int i = 0; i < postingThreads; i++) {
+                    if (!batches.get(i).isEmpty()) {
+                        handOver(queues.get(i), results.get(i), batches.get(i));
+                    }
+                    handOver(queues.get(i), results.get(i), END_OF_ROWS);
+                }
+            }
+
+            for (int i = 0; i < postingThreads; i++) {
+                imported += results.get(i).get();
+                rejected.addAll(postingRejected.get(i));
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted", e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Import failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        return rejected.toResult(imported);
+    }
+
+    private void parseRows(final Reader reader, final int columns, final List<BlockingQueue<List<Row>>> queues,
+                           final List<Future<Long>> results, final List<List<Row>> batches, final RejectedRows rejected)
+            throws IOException, InterruptedException, ExecutionException {
+        BufferedReader lines = new BufferedReader(reader);
+        lines.readLine();
+        String line;
+        long lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields;
+            try {
+                fields = parseLine(line, columns);
+            } catch (IllegalArgumentException e) {
+                rejected.add(lineNumber, e);
+                continue;
+            }
+
+            int postingThread = (fields[0].hashCode() & Integer.MAX_VALUE) % postingThreads;
+            List<Row> batch = batches.get(postingThread);
+            batch.add(new Row(lineNumber, fields));
+            if (batch.size() == batchSize) {
+                handOver(queues.get(postingThread), results.get(postingThread), batch);
+                batches.set(postingThread, new ArrayList<>(batchSize));
+            }
+        }
+    }
+
+    /**
+     * Puts a batch on the queue of a posting thread, checking that the thread is still running while the queue is full.
+     *
+     * @throws ExecutionException if the posting thread died
+     * @throws IllegalStateException if the posting thread stopped without taking the end of the rows
+     */
+    private static void handOver(final BlockingQueue<List<Row>> queue, final Future<Long> result, final List<Row> batch)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, HAND_OVER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (result.isDone()) {
+                result.get();
+                throw new IllegalStateException("Posting thread stopped before the end of the rows");
+            }
+        }
+    }
+
+    private static long postRows(final BlockingQueue<List<Row>> queue, final BatchHandler handler,
+                                 final RejectedRows rejected) throws InterruptedException {
+        long imported = 0;
+        List<Row> batch;
+        while ((batch = queue.take()) != END_OF_ROWS) {
+            imported += handler.post(batch, rejected);
+        }
+        return imported;
+    }
+
+    /**
+     * Splits a CSV line in fields.
+     *
+     * @param line Line to be split
+     * @param columns Number of fields the line must have
+     *
+     * @return Array of String with the fields of the line
+     *
+     * @throws IllegalArgumentException if the line does not have the number of fields or has an unclosed quote
+     */
+    static String[] parseLine(final String line, final int columns) {
+        String[] fields = new String[columns];
+        StringBuilder field = new StringBuilder();
+        int column = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (column == columns - 1) {
+                    throw new IllegalArgumentException("Row must have " + columns + " columns");
+                }
+                fields[column++] = field.toString();
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Row has an unclosed quote");
+        }
+        if (column != columns - 1) {
+            throw new IllegalArgumentException("Row must have " + columns + " columns");
+        }
+        fields[column] = field.toString();
+        return fields;
+    }
+
+    private static String reasonOf(final RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Builds and posts the model objects of a batch of parsed rows, returning how many were imported.
+     */
+    private interface BatchHandler {
+        long post(List<Row> batch, RejectedRows rejected);
+    }
+
+    /**
+     * Transactions of a batch that belong to the same account owner, with the rows they were built from.
+     */
+    private static final class OwnerTransactions {
+        private final TransactionParty owner;
+        private final List<Row> rows = new ArrayList<>();
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        private OwnerTransactions(final TransactionParty owner) {
+            this.owner = owner;
+        }
+
+        private void add(final Row row, final Transaction transaction) {
+            rows.add(row);
+            transactions.add(transaction);
+        }
+    }
+
+    /**
+     * Rejected rows of a thread: counts all of them and keeps the ones with the lowest line numbers, up to the limit.
+     */
+    private static final class RejectedRows {
+        private static final Comparator<ImportResult.RejectedRow> BY_LINE_NUMBER =
+                Comparator.comparingLong(ImportResult.RejectedRow::getLineNumber);
+
+        private final int limit;
+        private final PriorityQueue<ImportResult.RejectedRow> rows;
+        private long count;
+
+        private RejectedRows(final int limit) {
+            this.limit = limit;
+            this.rows = new PriorityQueue<>(BY_LINE_NUMBER.reversed());
+        }
+
+        private void add(final long lineNumber, final RuntimeException e) {
+            add(new ImportResult.RejectedRow(lineNumber, reasonOf(e)));
+            count++;
+        }
+
+        private void addAll(final RejectedRows other) {
+            for (ImportResult.RejectedRow row : other.rows) {
+                add(row);
+            }
+            count += other.count;
+        }
+
+        private void add(final ImportResult.RejectedRow row) {
+            if (rows.size() < limit) {
+                rows.add(row);
+            } else if (limit > 0 && row.getLineNumber() < rows.peek().getLineNumber()) {
+                rows.poll();
+                rows.add(row);
+            }
+        }
+
+        private ImportResult toResult(final long imported) {
+            List<ImportResult.RejectedRow> sortedRows = new ArrayList<>(rows);
+            sortedRows.sort(BY_LINE_NUMBER);
+            return new ImportResult(imported, count, sortedRows);
+        }
+    }
+
+    /**
+     * Parsed row and its line number in the file.
+     */
+    private static final class Row {
+        private final long lineNumber;
+        private final String[] fields;
+
+        private Row(final long lineNumber, final String[] fields) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+        }
+    }
+}
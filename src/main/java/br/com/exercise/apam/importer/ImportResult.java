@@ -0,0 +1,85 @@
+package br.com.exercise.apam.importer;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of an import: how many rows were imported and which rows were rejected.
+ */
+public final class ImportResult {
+
+    private final long importedRows;
+    private final long rejectedRowCount;
+    private final List<RejectedRow> rejectedRows;
+
+    ImportResult(final long importedRows, final long rejectedRowCount, final List<RejectedRow> rejectedRows) {
+        this.importedRows = importedRows;
+        this.rejectedRowCount = rejectedRowCount;
+        this.rejectedRows = Collections.unmodifiableList(rejectedRows);
+    }
+
+    /**
+     * Returns the number of rows imported.
+     *
+     * @return long representing the number of imported rows
+     */
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    /**
+     * Returns the number of rows rejected, including the ones not kept in {@link #getRejectedRows()}.
+     *
+     * @return long representing the number of rejected rows
+     */
+    public long getRejectedRowCount() {
+        return rejectedRowCount;
+    }
+
+    /**
+     * Returns the first rows that were rejected, ordered by line number.
+     * At most maxRejectedRows of the BulkImporter are kept, see {@link #getRejectedRowCount()} for the total.
+     *
+     * @return Read-only List of RejectedRow
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Row that could not be imported and why.
+     */
+    public static final class RejectedRow {
+
+        private final long lineNumber;
+        private final String reason;
+
+        RejectedRow(final long lineNumber, final String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the line number of the row in the file, the header is line 1.
+         *
+         * @return long representing the line number
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Returns the reason the row was rejected.
+         *
+         * @return String with the message of the rule that was violated
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + reason;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package br.com.exercise.apam.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.controller.ChildCostCalculator;
+import br.com.exercise.apam.controller.TariffSchedule;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParties;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Point-in-time copy of an ApamAdmin state: registered parties, City Hall children, accounts and their transactions.
+ *
+ * Capturing only copies references, each account is copied while holding its own lock, so postings to other
+ * accounts are not stopped. Parties and children can be registered while the capture is running: children are copied
+ * before the parties, and a child or City Hall is always registered as a party before it is added, so every captured
+ * child is in the captured parties. The captured state can then be written in the background.
+ *
+ * The file starts with a magic number and a format version, followed by a table with every party referenced by
+ * the state, so transactions store the party as an int index, and ends with a CRC32 of everything before it.
+ * Ids are written with {@link Identifier#writeTo(java.io.DataOutput)}, so UUID ids take two longs and are written
+ * without building their String.
+ * Files are written to a temporary file, forced to disk and moved to the target path once complete, then the
+ * directory is forced so the move survives a crash.
+ */
+public final class ApamSnapshot {
+
+    private static final long MAGIC = 0x4150414D534E4150L;
+    private static final int FORMAT_VERSION = 3;
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+
+    private final List<TransactionParty> transactionParties;
+    private final Map<TransactionParty, List<TransactionParty>> cityHallChildren;
+    private final List<AccountState> accounts;
+
+    private ApamSnapshot(final List<TransactionParty> transactionParties,
+                         final Map<TransactionParty, List<TransactionParty>> cityHallChildren,
+                         final List<AccountState> accounts) {
+        this.transactionParties = transactionParties;
+        this.cityHallChildren = cityHallChildren;
+        this.accounts = accounts;
+    }
+
+    /**
+     * Captures the current state of an ApamAdmin and its AccountDirectory.
+     *
+     * @param apamAdmin ApamAdmin to be captured
+     *
+     * @return ApamSnapshot with the captured state
+     *
+     * @throws NullPointerException if apamAdmin is null
+     */
+    public static ApamSnapshot capture(final ApamAdmin apamAdmin) {
+        Objects.requireNonNull(apamAdmin, "apamAdmin cannot be null");
+
+        Map<TransactionParty, List<TransactionParty>> cityHallChildren = new LinkedHashMap<>();
+        for (TransactionParty cityHall : apamAdmin.getTransactionPartyList(TransactionPartyType.CITY_HALL)) {
+            cityHallChildren.put(cityHall, new ArrayList<>(apamAdmin.getCityHallChildren(cityHall)));
+        }
+        List<TransactionParty> transactionParties = new ArrayList<>(apamAdmin.getTransactionPartyList());
+
+        List<AccountState> accounts = new ArrayList<>();
+        apamAdmin.getAccountDirectory().forEachAccount((owner, account) -> {
+            synchronized (account) {
+                accounts.add(new AccountState(owner, account,
+                        account.getTransactions().toArray(new Transaction[0]), account.getBalance()));
+            }
+        });
+
+        return new ApamSnapshot(transactionParties, cityHallChildren, accounts);
+    }
+
+    /**
+     * Writes the snapshot on a background Executor.
+     *
+     * @param path Path of the snapshot file
+     * @param executor Executor that writes the file
+     *
+     * @return CompletableFuture completed with the path once the file is written
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public CompletableFuture<Path> writeAsync(final Path path, final Executor executor) {
+        Objects.requireNonNull(path, "path cannot be null");
+        Objects.requireNonNull(executor, "executor cannot be null");
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(path);
+                return path;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Writes the snapshot, replacing the file only after it is completely written.
+     *
+     * @param path Path of the snapshot file
+     *
+     * @throws IOException if the file cannot be written
+     * @throws NullPointerException if path is null
+     */
+    public void write(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path cannot be null");
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporaryPath = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+                OutputStream file = Channels.newOutputStream(channel);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 64 * 1024));
+                writeState(output);
+                output.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+                channel.force(true);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        }
+    }
+
+    /**
+     * Loads a snapshot into a new ApamAdmin and AccountController, calculating City Hall payments with the default
+     * TariffSchedule, see {@link #load(Path, TariffSchedule, Clock)}.
+     *
+     * @param path Path of the snapshot file
+     *
+     * @return ApamAdmin with the restored state, its AccountController has the restored accounts
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a snapshot or its checksum does not match
+     * @throws NullPointerException if path is null
+     */
+    public static ApamAdmin load(final Path path) throws IOException {
+        return load(path, TariffSchedule.DEFAULT, Clock.systemUTC());
+    }
+
+    /**
+     * Loads a snapshot into a new ApamAdmin and AccountController following these rules:
+     * 1. The whole file checksum is verified before anything is built
+     * 2. Parties, transactions and accounts are restored from the verified fields without validating them again
+     * 3. The ApamAdmin calculates City Hall payments with the given TariffSchedule, tariffs are not part of the snapshot
+     * 4. The ApamAdmin only listens to the restored child accounts, close it if it is discarded while its
+     * AccountController is still in use
+     *
+     * @param path Path of the snapshot file
+     * @param tariffSchedule TariffSchedule used by the restored ApamAdmin
+     * @param clock Clock used to find the effective tariff
+     *
+     * @return ApamAdmin with the restored state, its AccountController has the restored accounts
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a snapshot or its checksum does not match
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static ApamAdmin load(final Path path, final TariffSchedule tariffSchedule, final Clock clock) throws IOException {
+        Objects.requireNonNull(path, "path cannot be null");
+        Objects.requireNonNull(tariffSchedule, "tariffSchedule cannot be null");
+        Objects.requireNonNull(clock, "clock cannot be null");
+
+        verifyChecksum(path);
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            return readState(input, tariffSchedule, clock);
+        }
+    }
+
+    private void writeState(final DataOutputStream output) throws IOException {
+        Map<Identifier, Integer> partyIndexes = new HashMap<>();
+        List<TransactionParty> partyTable = new ArrayList<>();
+        transactionParties.forEach(party -> indexParty(party, partyIndexes, partyTable));
+        for (AccountState account : accounts) {
+            indexParty(account.owner, partyIndexes, partyTable);
+            for (Transaction transaction : account.transactions) {
+                indexParty(transaction.getParty(), partyIndexes, partyTable);
+            }
+        }
+
+        output.writeLong(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+
+        output.writeInt(partyTable.size());
+        for (TransactionParty party : partyTable) {
+            output.writeByte(party.getType().ordinal());
+            party.getIdentifier().writeTo(output);
+            writeString(output, party.getName());
+            output.writeInt(party.getAge());
+        }
+
+        output.writeInt(transactionParties.size());
+        for (TransactionParty party : transactionParties) {
+            output.writeInt(partyIndexes.get(party.getIdentifier()));
+        }
+
+        output.writeInt(cityHallChildren.size());
+        for (Map.Entry<TransactionParty, List<TransactionParty>> entry : cityHallChildren.entrySet()) {
+            output.writeInt(partyIndexes.get(entry.getKey().getIdentifier()));
+            output.writeInt(entry.getValue().size());
+            for (TransactionParty child : entry.getValue()) {
+                output.writeInt(partyIndexes.get(child.getIdentifier()));
+            }
+        }
+
+        output.writeInt(accounts.size());
+        for (AccountState account : accounts) {
+            output.writeInt(partyIndexes.get(account.owner.getIdentifier()));
+            account.account.getIdentifier().writeTo(output);
+            writeString(output, account.account.getNumber());
+            output.writeByte(account.account.getType().ordinal());
+            writeDecimal(output, account.balance);
+            output.writeInt(account.transactions.length);
+            for (Transaction transaction : account.transactions) {
+                transaction.getIdentifier().writeTo(output);
+                writeString(output, transaction.getDescription());
+                writeDecimal(output, transaction.getValue());
+                output.writeByte(transaction.getSubject().ordinal());
+                output.writeInt(partyIndexes.get(transaction.getParty().getIdentifier()));
+                output.writeLong(transaction.getPostedAt().getEpochSecond());
+                output.writeInt(transaction.getPostedAt().getNano());
+            }
+        }
+    }
+
+    private static ApamAdmin readState(final DataInputStream input, final TariffSchedule tariffSchedule,
+                                       final Clock clock) throws IOException {
+        if (input.readLong() != MAGIC) {
+            throw new IllegalStateException("File is not an Apam snapshot");
+        }
+        int formatVersion = input.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + formatVersion);
+        }
+
+        TransactionParty[] partyTable = new TransactionParty[input.readInt()];
+        for (int i = 0; i < partyTable.length; i++) {
+            TransactionPartyType type = TransactionPartyType.values()[input.readUnsignedByte()];
+            Identifier id = Identifier.readFrom(input);
+            String name = readString(input);
+            int age = input.readInt();
+            partyTable[i] = TransactionParties.restore(id, name, age, type);
+        }
+
+        AccountController accountController = new AccountController();
+        ApamAdmin apamAdmin = new ApamAdmin(accountController,
+                new ChildCostCalculator(accountController, tariffSchedule, clock));
+
+        int registeredParties = input.readInt();
+        for (int i = 0; i < registeredParties; i++) {
+            apamAdmin.addTransactionParty(partyTable[input.readInt()]);
+        }
+
+        int cityHalls = input.readInt();
+        for (int i = 0; i < cityHalls; i++) {
+            TransactionParty cityHall = partyTable[input.readInt()];
+            int children = input.readInt();
+            for (int j = 0; j < children; j++) {
+                apamAdmin.addChild(cityHall, partyTable[input.readInt()]);
+            }
+        }
+
+        int accounts = input.readInt();
+        for (int i = 0; i < accounts; i++) {
+            TransactionParty owner = partyTable[input.readInt()];
+            Identifier id = Identifier.readFrom(input);
+            String number = readString(input);
+            AccountType type = AccountType.values()[input.readUnsignedByte()];
+            BigDecimal balance = readDecimal(input);
+
+            Transaction[] transactions = new Transaction[input.readInt()];
+            for (int j = 0; j < transactions.length; j++) {
+                Identifier transactionId = Identifier.readFrom(input);
+                String description = readString(input);
+                BigDecimal value = readDecimal(input);
+                TransactionSubject subject = TransactionSubject.values()[input.readUnsignedByte()];
+                TransactionParty party = partyTable[input.readInt()];
+                Instant postedAt = Instant.ofEpochSecond(input.readLong(), input.readInt());
+                transactions[j] = Transaction.restore(transactionId, description, value, subject, party, postedAt);
+            }
+
+            accountController.addAccount(owner, Account.restore(id, number, type, Arrays.asList(transactions), balance));
+        }
+
+        return apamAdmin;
+    }
+
+    private static void verifyChecksum(final Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < CHECKSUM_SIZE) {
+            throw new IllegalStateException("File is not an Apam snapshot");
+        }
+
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             CheckedInputStream input = new CheckedInputStream(file, crc)) {
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = size - CHECKSUM_SIZE;
+            while (remaining > 0) {
+                int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IllegalStateException("Snapshot is incomplete");
+                }
+                remaining -= read;
+            }
+            if (new DataInputStream(file).readLong() != crc.getValue()) {
+                throw new IllegalStateException("Snapshot checksum does not match");
+            }
+        }
+    }
+
+    private static void indexParty(final TransactionParty party, final Map<Identifier, Integer> partyIndexes,
+                                   final List<TransactionParty> partyTable) {
+        if (partyIndexes.putIfAbsent(party.getIdentifier(), partyTable.size()) == null) {
+            partyTable.add(party);
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(final DataOutputStream output, final BigDecimal value) throws IOException {
+        byte[] unscaledValue = value.unscaledValue().toByteArray();
+        output.writeInt(value.scale());
+        output.writeInt(unscaledValue.length);
+        output.write(unscaledValue);
+    }
+
+    private static BigDecimal readDecimal(final DataInputStream input) throws IOException {
+        int scale = input.readInt();
+        byte[] unscaledValue = new byte[input.readInt()];
+        input.readFully(unscaledValue);
+        return new BigDecimal(new BigInteger(unscaledValue), scale);
+    }
+
+    /**
+     * Account captured with its owner, transactions and balance.
+     */
+    private static final class AccountState {
+        private final TransactionParty owner;
+        private final Account account;
+        private final Transaction[] transactions;
+        private final BigDecimal balance;
+
+        private AccountState(final TransactionParty owner, final Account account, final Transaction[] transactions,
+                             final BigDecimal balance) {
+            this.owner = owner;
+            this.account = account;
+            this.transactions = transactions;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package br.com.exercise.apam.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.AccountDirectory;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParties;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Append-only journal of Accounts and Transactions, used to rebuild an AccountController after a restart.
+ *
+ * Each record is written as [int payload length][int CRC32 of the payload][payload]. Ids in the payload are written
+ * as [byte 1][long][long] for compact Identifiers, without building their String, or [byte 0][string] for any other
+ * id. Records are buffered and
+ * written to the file in groups. Every syncBatchSize records a background thread writes the buffer and forces the file
+ * to disk (group commit), so the thread adding a transaction, which holds the Account lock, never waits for the disk.
+ * The file is also forced on {@link #sync()} and on {@link #close()}, records after the last sync may be lost on a
+ * crash. If a record cannot be written the journal stops accepting records, so it never has a gap in the middle.
+ * An incomplete record at the end of the file, left by a crash while writing it, is ignored by replay and truncated
+ * when the journal is opened again. A corrupted record before the end of the file is never skipped: opening or
+ * replaying the journal fails, so records after it are not lost silently.
+ *
+ * Register the journal with {@link #register(AccountDirectory)} after replaying it, otherwise the replayed records
+ * would be written again. Registering also journals the transactions added later to accounts that already exist,
+ * such as the replayed ones. Transactions added to them before the registration must be persisted by other means
+ * (ex. an ApamSnapshot).
+ */
+public final class TransactionJournal implements AccountListener, Closeable {
+
+    /**
+     * Default number of records written between two syncs.
+     */
+    public static final int DEFAULT_SYNC_BATCH_SIZE = 64;
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte ACCOUNT_RECORD = 3;
+    private static final byte TRANSACTION_RECORD = 4;
+    private static final byte STRING_ID = 0;
+    private static final byte COMPACT_ID = 1;
+
+    private final FileChannel channel;
+    private final int syncBatchSize;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+    private final Thread syncer;
+    private final Set<Identifier> journaledAccounts;
+    private ByteBuffer record;
+    private int unsyncedRecords;
+    private boolean syncRequested;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Opens a journal with the default sync batch size.
+     *
+     * @param path Path of the journal file, created if it does not exist
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public TransactionJournal(final Path path) throws IOException {
+        this(path, DEFAULT_SYNC_BATCH_SIZE);
+    }
+
+    /**
+     * Opens a journal for appending, discarding any incomplete record at the end of the file.
+     *
+     * @param path Path of the journal file, created if it does not exist
+     * @param syncBatchSize Number of records written between two syncs, 1 syncs every record
+     *
+     * @throws IOException if the file cannot be opened or has a corrupted record before its end
+     * @throws NullPointerException if path is null
+     * @throws IllegalArgumentException if syncBatchSize is below 1
+     */
+    public TransactionJournal(final Path path, final int syncBatchSize) throws IOException {
+        Objects.requireNonNull(path, "path cannot be null");
+        if (syncBatchSize < 1) {
+            throw new IllegalArgumentException("syncBatchSize must be above 0");
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.syncBatchSize = syncBatchSize;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.crc = new CRC32();
+        this.record = ByteBuffer.allocate(1024);
+        this.journaledAccounts = new HashSet<>();
+
+        long validLength;
+        try {
+            validLength = read(channel, this::collectAccount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.truncate(validLength);
+        channel.position(validLength);
+
+        this.syncer = new Thread(this::runSyncer, "transaction-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Replays a journal into an AccountController, adding the journaled accounts and their transactions.
+     *
+     * @param path Path of the journal file
+     * @param accountController AccountController to be rebuilt
+     *
+     * @return long representing the number of records replayed
+     *
+     * @throws IOException if the file cannot be read or has a corrupted record before its end
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static long replay(final Path path, final AccountController accountController) throws IOException {
+        Objects.requireNonNull(path, "path cannot be null");
+        Objects.requireNonNull(accountController, "accountController cannot be null");
+
+        ReplayState state = new ReplayState(accountController);
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(readChannel, state::apply);
+        }
+        return state.records;
+    }
+
+    /**
+     * Registers the journal on an AccountDirectory, journaling the accounts added to it from now on and the
+     * transactions added to the accounts it already has (Ex. the replayed ones). Accounts that are not in the
+     * journal yet get their account record written, so their transactions can be replayed.
+     * Register the journal before the directory is shared, accounts added while registering could be journaled twice.
+     *
+     * @param accountDirectory AccountDirectory to be journaled
+     *
+     * @throws NullPointerException if accountDirectory is null
+     * @throws IllegalStateException if the journal is closed or failed before
+     */
+    public void register(final AccountDirectory accountDirectory) {
+        Objects.requireNonNull(accountDirectory, "accountDirectory cannot be null");
+
+        accountDirectory.addAccountListener(this);
+        accountDirectory.forEachAccount((owner, account) -> {
+            synchronized (this) {
+                if (!journaledAccounts.contains(account.getIdentifier())) {
+                    onAccountAdded(owner, account);
+                }
+            }
+            account.addListener(this);
+        });
+    }
+
+    @Override
+    public synchronized void onAccountAdded(final TransactionParty owner, final Account account) {
+        Identifier accountId = account.getIdentifier();
+        byte[] accountIdBytes = encode(accountId);
+        byte[] number = encode(account.getNumber());
+        PartyBytes party = new PartyBytes(owner);
+
+        ByteBuffer payload = startRecord(1 + party.size() + identifierSize(accountIdBytes) + stringSize(number) + 1);
+        payload.put(ACCOUNT_RECORD);
+        party.write(payload);
+        putIdentifier(payload, accountId, accountIdBytes);
+        putString(payload, number);
+        payload.put((byte) account.getType().ordinal());
+        appendRecord();
+        journaledAccounts.add(accountId);
+    }
+
+    @Override
+    public synchronized void onTransactionAdded(final Account account, final Transaction transaction) {
+        Identifier accountId = account.getIdentifier();
+        byte[] accountIdBytes = encode(accountId);
+        Identifier transactionId = transaction.getIdentifier();
+        byte[] transactionIdBytes = encode(transactionId);
+        byte[] description = encode(transaction.getDescription());
+        byte[] unscaledValue = transaction.getValue().unscaledValue().toByteArray();
+        PartyBytes party = new PartyBytes(transaction.getParty());
+
+        ByteBuffer payload = startRecord(1 + identifierSize(accountIdBytes) + identifierSize(transactionIdBytes)
+                + stringSize(description) + Integer.BYTES + stringSize(unscaledValue) + 1 + party.size()
+                + Long.BYTES + Integer.BYTES);
+        payload.put(TRANSACTION_RECORD);
+        putIdentifier(payload, accountId, accountIdBytes);
+        putIdentifier(payload, transactionId, transactionIdBytes);
+        putString(payload, description);
+        payload.putInt(transaction.getValue().scale());
+        putString(payload, unscaledValue);
+        payload.put((byte) transaction.getSubject().ordinal());
+        party.write(payload);
+        payload.putLong(transaction.getPostedAt().getEpochSecond());
+        payload.putInt(transaction.getPostedAt().getNano());
+        appendRecord();
+    }
+
+    /**
+     * Writes all buffered records and forces them to disk. The journal lock is not held while forcing,
+     * so records can be added meanwhile.
+     *
+     * @throws UncheckedIOException if the records cannot be written
+     * @throws IllegalStateException if the journal is closed or failed before
+     */
+    public void sync() {
+        synchronized (this) {
+            checkWritable();
+        }
+        try {
+            syncBuffered();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the background sync, syncs all buffered records and closes the journal file.
+     *
+     * @throws IOException if the records cannot be written, or a previous write failed, or the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+
+        boolean interrupted = false;
+        while (syncer.isAlive()) {
+            try {
+                syncer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            syncBuffered();
+        } finally {
+            channel.close();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runSyncer() {
+        while (true) {
+            synchronized (this) {
+                while (!syncRequested && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed || failure != null) {
+                    return;
+                }
+                syncRequested = false;
+            }
+            try {
+                syncBuffered();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the buffer while holding the journal lock and forces the file after releasing it.
+     */
+    private void syncBuffered() throws IOException {
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Journal failed before", failure);
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            unsyncedRecords = 0;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                throw fail(e);
+            }
+        }
+    }
+
+    private IOException fail(final IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        return e;
+    }
+
+    private void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Journal failed to write a record", failure);
+        }
+    }
+
+    private ByteBuffer startRecord(final int payloadSize) {
+        checkWritable();
+        if (record.capacity() < payloadSize) {
+            record = ByteBuffer.allocate(Math.max(payloadSize, record.capacity() * 2));
+        }
+        record.clear();
+        return record;
+    }
+
+    private void appendRecord() {
+        record.flip();
+        crc.reset();
+        crc.update(record.array(), 0, record.limit());
+
+        try {
+            if (buffer.remaining() < HEADER_SIZE + record.limit()) {
+                flush();
+            }
+            if (buffer.remaining() < HEADER_SIZE + record.limit()) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(record.limit()).putInt((int) crc.getValue()).flip();
+                writeFully(header);
+                writeFully(record);
+            } else {
+                buffer.putInt(record.limit()).putInt((int) crc.getValue()).put(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(fail(e));
+        }
+
+        if (++unsyncedRecords >= syncBatchSize) {
+            unsyncedRecords = 0;
+            syncRequested = true;
+            notifyAll();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Remembers the accounts already in the journal file, so registering does not write them again.
+     */
+    private void collectAccount(final ByteBuffer payload) {
+        if (payload.get() == ACCOUNT_RECORD) {
+            getParty(payload);
+            journaledAccounts.add(getIdentifier(payload));
+        }
+    }
+
+    /**
+     * Reads the valid records of a journal, passing the payload of each one to the consumer.
+     *
+     * @return long representing the length of the file up to the last complete record
+     *
+     * @throws IOException if a record before the end of the file is corrupted
+     */
+    private static long read(final FileChannel readChannel, final Consumer<ByteBuffer> consumer) throws IOException {
+        ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        CRC32 readCrc = new CRC32();
+        long validLength = 0;
+        readChannel.position(0);
+
+        long fileSize = readChannel.size();
+
+        while (true) {
+            readBuffer.flip();
+            while (readBuffer.remaining() >= HEADER_SIZE) {
+                int payloadSize = readBuffer.getInt(readBuffer.position());
+                if (payloadSize <= 0) {
+                    throw corrupted(validLength);
+                }
+                if (HEADER_SIZE + (long) payloadSize > fileSize - validLength) {
+                    return validLength;
+                }
+                if (readBuffer.remaining() < HEADER_SIZE + payloadSize) {
+                    break;
+                }
+                int expectedCrc = readBuffer.getInt(readBuffer.position() + Integer.BYTES);
+                readCrc.reset();
+                readCrc.update(readBuffer.array(), readBuffer.position() + HEADER_SIZE, payloadSize);
+                if ((int) readCrc.getValue() != expectedCrc) {
+                    if (validLength + HEADER_SIZE + payloadSize == fileSize) {
+                        return validLength;
+                    }
+                    throw corrupted(validLength);
+                }
+
+                readBuffer.position(readBuffer.position() + HEADER_SIZE);
+                ByteBuffer payload = readBuffer.slice();
+                payload.limit(payloadSize);
+                consumer.accept(payload);
+                readBuffer.position(readBuffer.position() + payloadSize);
+                validLength += HEADER_SIZE + payloadSize;
+            }
+            readBuffer.compact();
+
+            if (readBuffer.position() >= HEADER_SIZE) {
+                int payloadSize = readBuffer.getInt(0);
+                if (payloadSize > 0 && HEADER_SIZE + (long) payloadSize <= fileSize - validLength
+                        && HEADER_SIZE + payloadSize > readBuffer.capacity()) {
+                    ByteBuffer largerBuffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+                    readBuffer.flip();
+                    largerBuffer.put(readBuffer);
+                    readBuffer = largerBuffer;
+                }
+            }
+            if (readChannel.read(readBuffer) < 0) {
+                return validLength;
+            }
+        }
+    }
+
+    private static IOException corrupted(final long position) {
+        return new IOException("Journal has a corrupted record at position " + position);
+    }
+
+    private static byte[] encode(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the UTF-8 bytes of an Identifier that is not compact, or null if it is written as two longs.
+     */
+    private static byte[] encode(final Identifier id) {
+        return id.isCompact() ? null : encode(id.toString());
+    }
+
+    private static int identifierSize(final byte[] value) {
+        return 1 + (value == null ? 2 * Long.BYTES : stringSize(value));
+    }
+
+    private static void putIdentifier(final ByteBuffer target, final Identifier id, final byte[] value) {
+        if (value == null) {
+            target.put(COMPACT_ID).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        } else {
+            target.put(STRING_ID);
+            putString(target, value);
+        }
+    }
+
+    private static Identifier getIdentifier(final ByteBuffer source) {
+        if (source.get() == COMPACT_ID) {
+            return Identifier.of(source.getLong(), source.getLong());
+        }
+        return Identifier.of(getString(source));
+    }
+
+    private static int stringSize(final byte[] value) {
+        return Integer.BYTES + value.length;
+    }
+
+    private static void putString(final ByteBuffer target, final byte[] value) {
+        target.putInt(value.length).put(value);
+    }
+
+    private static byte[] getBytes(final ByteBuffer source) {
+        byte[] value = new byte[source.getInt()];
+        source.get(value);
+        return value;
+    }
+
+    private static String getString(final ByteBuffer source) {
+        return new String(getBytes(source), StandardCharsets.UTF_8);
+    }
+
+    private static TransactionParty getParty(final ByteBuffer source) {
+        TransactionPartyType type = TransactionPartyType.values()[source.get()];
+        Identifier id = getIdentifier(source);
+        String name = getString(source);
+        int age = source.getInt();
+        return TransactionParties.restore(id, name, age, type);
+    }
+
+    /**
+     * Encoded fields of a TransactionParty: [byte type][id][string name][int age].
+     */
+    private static final class PartyBytes {
+        private final TransactionPartyType type;
+        private final Identifier id;
+        private final byte[] idBytes;
+        private final byte[] name;
+        private final int age;
+
+        private PartyBytes(final TransactionParty party) {
+            this.type = party.getType();
+            this.id = party.getIdentifier();
+            this.idBytes = encode(id);
+            this.name = encode(party.getName());
+            this.age = party.getAge();
+        }
+
+        private int size() {
+            return 1 + identifierSize(idBytes) + stringSize(name) + Integer.BYTES;
+        }
+
+        private void write(final ByteBuffer target) {
+            target.put((byte) type.ordinal());
+            putIdentifier(target, id, idBytes);
+            putString(target, name);
+            target.putInt(age);
+        }
+    }
+
+    /**
+     * Rebuilds the accounts of an AccountController from the journal records.
+     */
+    private static final class ReplayState {
+        private final AccountController accountController;
+        private final Map<Identifier, Account> accounts;
+        private long records;
+
+        private ReplayState(final AccountController accountController) {
+            this.accountController = accountController;
+            this.accounts = new HashMap<>();
+        }
+
+        private void apply(final ByteBuffer payload) {
+            byte recordType = payload.get();
+            if (recordType == ACCOUNT_RECORD) {
+                TransactionParty owner = getParty(payload);
+                Identifier accountId = getIdentifier(payload);
+                String number = getString(payload);
+                AccountType type = AccountType.values()[payload.get()];
+
+                accountController.addAccount(owner, new Account(accountId.toString(), number, type));
+                accounts.put(accountId, accountController.getAccount(owner));
+            } else if (recordType == TRANSACTION_RECORD) {
+                Identifier accountId = getIdentifier(payload);
+                Identifier transactionId = getIdentifier(payload);
+                String description = getString(payload);
+                int scale = payload.getInt();
+                BigDecimal value = new BigDecimal(new BigInteger(getBytes(payload)), scale);
+                TransactionSubject subject = TransactionSubject.values()[payload.get()];
+                TransactionParty party = getParty(payload);
+                Instant postedAt = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+
+                Account account = accounts.get(accountId);
+                if (account == null) {
+                    throw new IllegalStateException("Journal has a transaction for an unknown account " + accountId);
+                }
+                account.addTransaction(new Transaction(transactionId, description, value, subject, party, postedAt));
+            } else {
+                throw new IllegalStateException("Unknown journal record type " + recordType);
+            }
+            records++;
+        }
+    }
+}
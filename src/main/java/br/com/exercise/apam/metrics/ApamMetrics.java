@@ -0,0 +1,73 @@
+package br.com.exercise.apam.metrics;
+
+/**
+ * Metrics recorded by the Apam classes on their hot paths.
+ *
+ * Recording is enabled by setting the {@value #ENABLED_PROPERTY} system property to true. The flag is a static
+ * final constant, so when it is off the JIT removes the recording code and the instrumented methods run as if it
+ * were not there. Call {@link #snapshot()} to export every metric as plain text, see {@link MetricsRegistry#snapshot()}.
+ */
+public final class ApamMetrics {
+
+    /**
+     * System property that enables the metrics.
+     */
+    public static final String ENABLED_PROPERTY = "apam.metrics";
+
+    /**
+     * True if the metrics are recorded, read once from the {@value #ENABLED_PROPERTY} system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * Registry with every Apam metric, more metrics and gauges can be registered on it.
+     */
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    /**
+     * Latency of Account.addTransaction, including the notification of its listeners.
+     */
+    public static final LatencyHistogram ADD_TRANSACTION = REGISTRY.histogram("account.addTransaction");
+
+    /**
+     * Transactions ignored by Account.addTransaction and Account.addTransactions because their id was already added.
+     */
+    public static final Counter DUPLICATED_TRANSACTIONS = REGISTRY.counter("account.addTransaction.duplicated");
+
+    /**
+     * Latency of AccountController.getAccount.
+     */
+    public static final LatencyHistogram GET_ACCOUNT = REGISTRY.histogram("accountController.getAccount");
+
+    /**
+     * Calls to AccountController.getAccount for a TransactionParty without an Account.
+     */
+    public static final Counter ACCOUNT_MISSES = REGISTRY.counter("accountController.getAccount.misses");
+
+    /**
+     * Latency of ApamAdmin.calculateCityHallPayment.
+     */
+    public static final LatencyHistogram CITY_HALL_PAYMENT = REGISTRY.histogram("apamAdmin.calculateCityHallPayment");
+
+    /**
+     * Accounts registered on any AccountController since the metrics were enabled or reset.
+     */
+    public static final Counter ACCOUNTS_ADDED = REGISTRY.counter("accounts.added");
+
+    /**
+     * Transactions added to any Account since the metrics were enabled or reset, duplicated ones are not counted.
+     */
+    public static final Counter TRANSACTIONS_ADDED = REGISTRY.counter("transactions.added");
+
+    private ApamMetrics() {
+    }
+
+    /**
+     * Returns a plain-text snapshot of every Apam metric.
+     *
+     * @return String with one metric per line
+     */
+    public static String snapshot() {
+        return REGISTRY.snapshot();
+    }
+}
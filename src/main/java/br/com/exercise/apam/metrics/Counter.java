@@ -0,0 +1,44 @@
+package br.com.exercise.apam.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count of events, safe to increment from many threads without contention.
+ */
+public final class Counter {
+
+    private final LongAdder count;
+
+    Counter() {
+        this.count = new LongAdder();
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds a number of events to the count.
+     *
+     * @param events Number of events
+     */
+    public void add(final long events) {
+        count.add(events);
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return long representing the count
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
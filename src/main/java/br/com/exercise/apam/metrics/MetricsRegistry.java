@@ -0,0 +1,121 @@
+package br.com.exercise.apam.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named Counters, LatencyHistograms and gauges, exported together as a plain-text snapshot.
+ *
+ * Metrics are looked up by name when they are registered, callers keep the returned instance and record on it,
+ * so recording does not go through the registry. Names are unique across all kinds of metrics.
+ */
+public final class MetricsRegistry {
+
+    private static final double[] SNAPSHOT_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Counter> counters;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, LongSupplier> gauges;
+
+    /**
+     * Builds a new MetricsRegistry without metrics.
+     */
+    public MetricsRegistry() {
+        this.counters = new ConcurrentSkipListMap<>();
+        this.histograms = new ConcurrentSkipListMap<>();
+        this.gauges = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Returns the Counter with a name, registering it if it does not exist.
+     *
+     * @param name Name of the counter
+     *
+     * @return Counter registered with the name
+     *
+     * @throws NullPointerException if the name is null
+     * @throws IllegalArgumentException if the name is used by another kind of metric
+     */
+    public Counter counter(final String name) {
+        checkName(name, counters);
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Returns the LatencyHistogram with a name, registering it if it does not exist.
+     *
+     * @param name Name of the histogram
+     *
+     * @return LatencyHistogram registered with the name
+     *
+     * @throws NullPointerException if the name is null
+     * @throws IllegalArgumentException if the name is used by another kind of metric
+     */
+    public LatencyHistogram histogram(final String name) {
+        checkName(name, histograms);
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge, a value that is read when the snapshot is taken. A gauge with the same name is replaced.
+     * The supplier is called from the thread taking the snapshot, so it must be thread safe.
+     *
+     * @param name Name of the gauge
+     * @param value LongSupplier of the current value
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the name is used by another kind of metric
+     */
+    public void gauge(final String name, final LongSupplier value) {
+        Objects.requireNonNull(value, "value cannot be null");
+        checkName(name, gauges);
+        gauges.put(name, value);
+    }
+
+    /**
+     * Sets every Counter and LatencyHistogram back to zero, gauges are not affected.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Returns a plain-text snapshot of every metric, one per line and sorted by name within each kind:
+     * 1. counter NAME VALUE
+     * 2. gauge NAME VALUE
+     * 3. histogram NAME count=N mean=NS p50=NS p90=NS p99=NS p99.9=NS max=NS, with latencies in nanoseconds
+     *
+     * @return String with the snapshot
+     */
+    public String snapshot() {
+        StringBuilder snapshot = new StringBuilder();
+        counters.forEach((name, counter) -> snapshot.append("counter ").append(name).append(' ').append(counter.get()).append('\n'));
+        gauges.forEach((name, gauge) -> snapshot.append("gauge ").append(name).append(' ').append(gauge.getAsLong()).append('\n'));
+        histograms.forEach((name, histogram) -> {
+            snapshot.append("histogram ").append(name)
+                    .append(" count=").append(histogram.getCount())
+                    .append(" mean=").append(Math.round(histogram.getMean()));
+            for (double percentile : SNAPSHOT_PERCENTILES) {
+                snapshot.append(" p").append(formatPercentile(percentile)).append('=').append(histogram.getValueAtPercentile(percentile));
+            }
+            snapshot.append(" max=").append(histogram.getMax()).append('\n');
+        });
+        return snapshot.toString();
+    }
+
+    private void checkName(final String name, final Map<String, ?> kind) {
+        Objects.requireNonNull(name, "name cannot be null");
+        if ((kind != counters && counters.containsKey(name))
+                || (kind != histograms && histograms.containsKey(name))
+                || (kind != gauges && gauges.containsKey(name))) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered with another kind");
+        }
+    }
+
+    private static String formatPercentile(final double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
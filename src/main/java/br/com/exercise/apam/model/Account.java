@@ -1,20 +1,53 @@
 package br.com.exercise.apam.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import br.com.exercise.apam.metrics.ApamMetrics;
 
 /**
  * This class Represents an Apam or Child Account
+ *
+ * Accounts are thread safe, transactions can be added from multiple threads and each account uses its own lock,
+ * so transactions for different accounts can be added in parallel.
  */
 public class Account {
 
-    private final String id;
+    /**
+     * System property that enables the balance consistency check on every {@link #getBalance()} call.
+     */
+    public static final String BALANCE_CHECK_PROPERTY = "apam.account.balanceCheck";
+
+    /**
+     * Time zone used to find the month a Transaction was posted in for the monthly statements.
+     */
+    public static final ZoneId STATEMENT_ZONE = ZoneOffset.UTC;
+
+    private static final boolean BALANCE_CHECK_ENABLED = Boolean.getBoolean(BALANCE_CHECK_PROPERTY);
+
+    private final Identifier id;
     private final String number;
     private final AccountType type;
     private final List<Transaction> transactions;
+    private final Set<Identifier> transactionIds;
+    private final List<AccountListener> listeners;
+    private final NavigableMap<YearMonth, MonthlyTotals> monthlyTotals;
+    private volatile BigDecimal balance;
+    private volatile long version;
 
     /**
      * Create a new Account with the following rules:
@@ -28,6 +61,28 @@ public class Account {
      * @throws NullPointerException if id or number are null
      */
     public Account(String id, String number, AccountType type) {
+        this(id, number, type, new ArrayList<>());
+    }
+
+    /**
+     * Create a new Account that keeps its transactions in the given list (Ex. a MappedTransactionStore) with the following rules:
+     * 1. Id, Number, Type and the transaction list should not be null
+     * 2. Transactions already in the list are kept and the balance is calculated from them
+     * 3. The list is owned by the Account from now on, transactions must only be added through the Account
+     * 4. If the list is a {@link TransactionStorage}, its transactions are not built and their ids are not kept on heap
+     *
+     * @param id Id of the Account
+     * @param number Number of the account
+     * @param type AccountType of the account
+     * @param transactions List that keeps the Transactions of the account
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public Account(String id, String number, AccountType type, List<Transaction> transactions) {
+        this(Identifier.of(Objects.requireNonNull(id, "id must not be null")), number, type, transactions);
+    }
+
+    private Account(Identifier id, String number, AccountType type, List<Transaction> transactions) {
         if (id == null) {
             throw new NullPointerException("id must not be null");
         }
@@ -37,11 +92,56 @@ public class Account {
         if (type == null) {
             throw new NullPointerException("type must not be null");
         }
+        if (transactions == null) {
+            throw new NullPointerException("transactions must not be null");
+        }
 
         this.id = id;
         this.number = number;
         this.type = type;
-        this.transactions = new ArrayList<>();
+        this.transactions = transactions;
+        this.transactionIds = transactions instanceof TransactionStorage ? null : new HashSet<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.monthlyTotals = new TreeMap<>();
+        this.balance = BigDecimal.ZERO;
+
+        if (transactionIds == null) {
+            ((TransactionStorage) transactions).forEachPosting(this::addPosting);
+            return;
+        }
+        for (Transaction transaction : transactions) {
+            transactionIds.add(transaction.getIdentifier());
+            addPosting(transaction.getAmount(), transaction.getSubject(), transaction.getPostedAt());
+        }
+    }
+
+    /**
+     * Restores an Account with its transactions and balance without validating them.
+     * It is meant to load data that was already validated and is checked by other means (ex. a checksum verified snapshot),
+     * any other use should build the Account and add its transactions.
+     *
+     * @param id Identifier of the Account
+     * @param number Number of the account
+     * @param type AccountType of the account
+     * @param transactions Transactions of the account, in order and without duplicates
+     * @param balance Balance of the account for the given transactions
+     *
+     * @return Account with the given transactions and balance
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static Account restore(Identifier id, String number, AccountType type, Collection<Transaction> transactions, BigDecimal balance) {
+        Objects.requireNonNull(transactions, "transactions must not be null");
+        Objects.requireNonNull(balance, "balance must not be null");
+
+        Account account = new Account(id, number, type, new ArrayList<>(transactions.size()));
+        account.transactions.addAll(transactions);
+        for (Transaction transaction : transactions) {
+            account.transactionIds.add(transaction.getIdentifier());
+            account.addToMonthlyTotals(transaction);
+        }
+        account.balance = balance;
+        return account;
     }
 
     /**
@@ -50,6 +150,15 @@ public class Account {
      * @return String representing the id of the Account.
      */
     public String getId() {
+        return id.toString();
+    }
+
+    /**
+     * Returns the Id of the Account as an Identifier.
+     *
+     * @return Identifier representing the id of the Account.
+     */
+    public Identifier getIdentifier() {
         return id;
     }
 
@@ -74,25 +183,119 @@ public class Account {
     /**
      * Returns the Transactions of the Account.
      *
+     * The returned list is read-only, transactions must be added through {@link #addTransaction(Transaction)}
+     * so the running balance is kept up to date.
+     * If transactions may be added concurrently, the returned list must be iterated while synchronized on the Account.
+     *
      * @return List of Transactions representing the Transactions of the Account.
      */
     public List<Transaction> getTransactions() {
-        return transactions;
+        return Collections.unmodifiableList(transactions);
     }
 
     /**
      * Returns the Balance of the Account.
+     * The balance is maintained on each added transaction, IN transactions are added and OUT transactions are subtracted.
+     * If the {@value #BALANCE_CHECK_PROPERTY} system property is set to true, the balance is recalculated and compared on every call.
      *
      * @return BigDecimal representing the Balance of the Account.
+     *
+     * @throws IllegalStateException if the balance check is enabled and the running balance is not consistent
      */
     public BigDecimal getBalance() {
-        BigDecimal Balance = BigDecimal.ZERO;
-        if (transactions != null ) {
-            for (Transaction transaction : transactions) {
-                Balance = Balance.add(transaction.getAmount());
+        if (BALANCE_CHECK_ENABLED) {
+            synchronized (this) {
+                if (!isBalanceConsistent()) {
+                    throw new IllegalStateException("Account balance is not consistent with its transactions");
+                }
+                return balance;
             }
         }
-        return Balance;
+        return balance;
+    }
+
+    /**
+     * Returns the Version of the Account, it changes every time a transaction is added.
+     * It can be used to check if something calculated from the Account is still up to date.
+     *
+     * @return long representing the Version of the Account.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Recalculates the Balance of the Account walking through all of its transactions.
+     *
+     * @return BigDecimal representing the recalculated Balance of the Account.
+     */
+    public synchronized BigDecimal calculateBalance() {
+        BigDecimal calculatedBalance = BigDecimal.ZERO;
+        for (Transaction transaction : transactions) {
+            calculatedBalance = applyTransaction(calculatedBalance, transaction);
+        }
+        return calculatedBalance;
+    }
+
+    /**
+     * Checks if the running Balance matches the Balance recalculated from the transactions.
+     *
+     * @return True if both balances are equal or False if not.
+     */
+    public synchronized boolean isBalanceConsistent() {
+        return balance.compareTo(calculateBalance()) == 0;
+    }
+
+    /**
+     * Returns the Balance of the Account at the end of a month, considering the transactions posted until then.
+     * It is calculated from the monthly totals, so it takes time proportional to the number of months with transactions.
+     *
+     * @param month YearMonth of the balance, in the {@link #STATEMENT_ZONE} time zone
+     *
+     * @return BigDecimal representing the Balance at the end of the month.
+     *
+     * @throws NullPointerException if month is null.
+     */
+    public synchronized BigDecimal getBalanceAtEndOf(final YearMonth month) {
+        Objects.requireNonNull(month, "month cannot be null");
+
+        return sumNetChanges(monthlyTotals.headMap(month, true));
+    }
+
+    /**
+     * Returns the Statement of the Account for a month.
+     * It is calculated from the monthly totals, so it takes time proportional to the number of months with transactions.
+     *
+     * @param month YearMonth of the statement, in the {@link #STATEMENT_ZONE} time zone
+     *
+     * @return MonthlyStatement of the month, with no totals if no transaction was posted in it
+     *
+     * @throws NullPointerException if month is null.
+     */
+    public synchronized MonthlyStatement getMonthlyStatement(final YearMonth month) {
+        Objects.requireNonNull(month, "month cannot be null");
+
+        MonthlyTotals totals = monthlyTotals.get(month);
+        if (totals == null) {
+            totals = new MonthlyTotals();
+        }
+        return totals.toStatement(month, sumNetChanges(monthlyTotals.headMap(month, false)));
+    }
+
+    /**
+     * Returns the Statements of every month with transactions, in month order.
+     *
+     * @return List of MonthlyStatement
+     */
+    public synchronized List<MonthlyStatement> getMonthlyStatements() {
+        List<MonthlyStatement> statements = new ArrayList<>(monthlyTotals.size());
+        BigDecimal openingBalance = BigDecimal.ZERO;
+        for (Map.Entry<YearMonth, MonthlyTotals> entry : monthlyTotals.entrySet()) {
+            MonthlyStatement statement = entry.getValue().toStatement(entry.getKey(), openingBalance);
+            statements.add(statement);
+            openingBalance = statement.getClosingBalance();
+        }
+        return statements;
     }
 
     /**
@@ -100,41 +303,218 @@ public class Account {
      * 1. CITY_HALL_ACCOUNT accounts only accepts [CHILD_PAYMENT, PAYMENT] transactions subject.
      * 2. CHILD_ACCOUNT accounts only accepts [CHILD_SALARY, PAYMENT] transactions subject.
      * 3. DONATION_ACCOUNT accounts only accepts [DONATION, PAYMENT] transactions subject.
-     * 4. Duplicated transactions should be ignored
+     * 4. Duplicated transactions (same transaction id) should be ignored
+     * 5. The balance and the totals of the month it was posted in are updated according to the TransactionType of the transaction subject
      *
      * @param transaction Transaction to be added
      *
      * @throws IllegalArgumentException if any of the rules above are violated
      * @throws NullPointerException if transaction is null.
+     * @throws RuntimeException thrown by an AccountListener, after the transaction was added and every listener was notified
      */
-    public void addTransaction(final Transaction transaction) {
+    public synchronized void addTransaction(final Transaction transaction) {
+        if (!ApamMetrics.ENABLED) {
+            appendTransaction(transaction);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            appendTransaction(transaction);
+        } finally {
+            ApamMetrics.ADD_TRANSACTION.recordSince(start);
+        }
+    }
+
+    private void appendTransaction(final Transaction transaction) {
         if (transaction == null) {
             throw new NullPointerException(" transaction must not be null");
         }
-        if (transactions.contains(transaction)) {
+        if (hasTransactionId(transaction.getIdentifier())) {
+            if (ApamMetrics.ENABLED) {
+                ApamMetrics.DUPLICATED_TRANSACTIONS.increment();
+            }
             return;
         }
+        validateTransaction(transaction);
+
+        transactions.add(transaction);
+        addTransactionId(transaction.getIdentifier());
+        balance = applyTransaction(balance, transaction);
+        addToMonthlyTotals(transaction);
+        version++;
+        if (ApamMetrics.ENABLED) {
+            ApamMetrics.TRANSACTIONS_ADDED.increment();
+        }
+        notifyTransactionAdded(transaction);
+    }
+
+    /**
+     * Add a batch of Transactions to the Account following the same rules of {@link #addTransaction(Transaction)}.
+     * Transactions already added to the Account are ignored before validation, like in the single path, and the new
+     * ones are validated before any of them is added, so either all new transactions are added or none.
+     * Listeners are notified once for the whole batch, see {@link AccountListener#onTransactionsAdded(Account, List)}.
+     *
+     * @param transactions Transactions to be added, in order
+     *
+     * @return int representing the number of transactions added (duplicated ones are not counted)
+     *
+     * @throws IllegalArgumentException if any of the new transactions is not valid for the Account
+     * @throws NullPointerException if the collection or any of its transactions is null.
+     * @throws RuntimeException thrown by an AccountListener, after the transactions were added and every listener was notified
+     */
+    public synchronized int addTransactions(final Collection<Transaction> transactions) {
+        if (transactions == null) {
+            throw new NullPointerException(" transactions must not be null");
+        }
+        List<Transaction> newTransactions = new ArrayList<>(transactions.size());
+        Set<Identifier> batchIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction == null) {
+                throw new NullPointerException(" transaction must not be null");
+            }
+            Identifier transactionId = transaction.getIdentifier();
+            if (!hasTransactionId(transactionId) && batchIds.add(transactionId)) {
+                validateTransaction(transaction);
+                newTransactions.add(transaction);
+            }
+        }
 
-        Set<TransactionType> allowedTransactions = new HashSet<>();
-        switch (type) {
-            case CITY_HALL_ACCOUNT:
-                allowedTransactions.add(TransactionType.CHILD_PAYMENT);
-                allowedTransactions.add(TransactionType.PAYMENT);
-                break;
-            case CHILD_ACCOUNT:
-                allowedTransactions.add(TransactionType.CHILD_SALARY);
-                allowedTransactions.add(TransactionType.PAYMENT);
-                break;
-            case DONATION_ACCOUNT:
-                allowedTransactions.add(TransactionType.DONATION);
-                allowedTransactions.add(TransactionType.PAYMENT);
-                break;
+        if (ApamMetrics.ENABLED) {
+            ApamMetrics.DUPLICATED_TRANSACTIONS.add(transactions.size() - newTransactions.size());
+            ApamMetrics.TRANSACTIONS_ADDED.add(newTransactions.size());
         }
-        if (!allowedTransactions.contains(transaction.getSubject())) {
-            throw new IllegalArgumentException("This transaction is invalid, it has already been added");
+        if (newTransactions.isEmpty()) {
+            return 0;
         }
 
-        transaction.add(transaction);
+        BigDecimal newBalance = balance;
+        for (Transaction transaction : newTransactions) {
+            this.transactions.add(transaction);
+            addTransactionId(transaction.getIdentifier());
+            newBalance = applyTransaction(newBalance, transaction);
+            addToMonthlyTotals(transaction);
+        }
+        balance = newBalance;
+        version++;
+        notifyTransactionsAdded(Collections.unmodifiableList(newTransactions));
+        return newTransactions.size();
+    }
 
+    /**
+     * Checks if a transaction with the given id was already added to the Account.
+     *
+     * @param transactionId Id of the Transaction
+     *
+     * @return True if the transaction was added or False if not.
+     *
+     * @throws NullPointerException if transactionId is null.
+     */
+    public synchronized boolean containsTransaction(final String transactionId) {
+        return hasTransactionId(Identifier.of(transactionId));
+    }
+
+    /**
+     * Registers a listener to be notified of every Transaction added to the Account.
+     *
+     * @param listener AccountListener to be notified
+     *
+     * @throws NullPointerException if listener is null.
+     */
+    public void addListener(final AccountListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener cannot be null"));
+    }
+
+    /**
+     * Removes a registered listener.
+     *
+     * @param listener AccountListener to be removed
+     */
+    public void removeListener(final AccountListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyTransactionAdded(final Transaction transaction) {
+        RuntimeException failure = null;
+        for (AccountListener listener : listeners) {
+            try {
+                listener.onTransactionAdded(this, transaction);
+            } catch (RuntimeException e) {
+                failure = addFailure(failure, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void notifyTransactionsAdded(final List<Transaction> addedTransactions) {
+        RuntimeException failure = null;
+        for (AccountListener listener : listeners) {
+            try {
+                listener.onTransactionsAdded(this, addedTransactions);
+            } catch (RuntimeException e) {
+                failure = addFailure(failure, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException addFailure(final RuntimeException failure, final RuntimeException e) {
+        if (failure == null) {
+            return e;
+        }
+        failure.addSuppressed(e);
+        return failure;
+    }
+
+    private void validateTransaction(final Transaction transaction) {
+        if (!TransactionRules.isSubjectAllowed(type, transaction.getSubject())) {
+            throw new IllegalArgumentException("Invalid Transaction for Account");
+        }
+    }
+
+    private boolean hasTransactionId(final Identifier transactionId) {
+        if (transactionIds == null) {
+            return ((TransactionStorage) transactions).containsTransactionId(transactionId);
+        }
+        return transactionIds.contains(transactionId);
+    }
+
+    private void addTransactionId(final Identifier transactionId) {
+        if (transactionIds != null) {
+            transactionIds.add(transactionId);
+        }
+    }
+
+    private void addPosting(final BigDecimal value, final TransactionSubject subject, final Instant postedAt) {
+        if (subject.getTransactionType() == TransactionType.OUT) {
+            balance = balance.subtract(value);
+        } else {
+            balance = balance.add(value);
+        }
+        YearMonth month = YearMonth.from(postedAt.atZone(STATEMENT_ZONE));
+        monthlyTotals.computeIfAbsent(month, k -> new MonthlyTotals()).add(subject, value);
+    }
+
+    private void addToMonthlyTotals(final Transaction transaction) {
+        YearMonth month = YearMonth.from(transaction.getPostedAt().atZone(STATEMENT_ZONE));
+        monthlyTotals.computeIfAbsent(month, k -> new MonthlyTotals()).add(transaction.getSubject(), transaction.getAmount());
+    }
+
+    private static BigDecimal sumNetChanges(final Map<YearMonth, MonthlyTotals> totals) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (MonthlyTotals monthTotals : totals.values()) {
+            sum = sum.add(monthTotals.getNetChange());
+        }
+        return sum;
+    }
+
+    private static BigDecimal applyTransaction(final BigDecimal currentBalance, final Transaction transaction) {
+        if (transaction.getSubject().getTransactionType() == TransactionType.OUT) {
+            return currentBalance.subtract(transaction.getAmount());
+        }
+        return currentBalance.add(transaction.getAmount());
     }
 }
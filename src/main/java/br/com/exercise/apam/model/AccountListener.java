@@ -0,0 +1,44 @@
+package br.com.exercise.apam.model;
+
+import java.util.List;
+
+/**
+ * Receives notifications about Accounts and their Transactions.
+ *
+ * Listeners are called synchronously, after the change is applied and while the Account lock is held,
+ * so they should be fast and must not add transactions to the same Account. An exception thrown by a listener does
+ * not undo the change nor stop the other listeners, it is thrown to the caller once all of them were notified.
+ */
+public interface AccountListener {
+
+    /**
+     * Called when an Account is registered for a TransactionParty.
+     *
+     * @param owner TransactionParty that owns the account
+     * @param account Account that was registered
+     */
+    default void onAccountAdded(TransactionParty owner, Account account) {
+    }
+
+    /**
+     * Called when a Transaction is added to an Account.
+     *
+     * @param account Account that received the transaction
+     * @param transaction Transaction that was added
+     */
+    void onTransactionAdded(Account account, Transaction transaction);
+
+    /**
+     * Called once when a batch of Transactions is added to an Account by {@link Account#addTransactions}.
+     * The default implementation calls {@link #onTransactionAdded(Account, Transaction)} for each transaction,
+     * listeners that do work per change can override it to do that work once per batch.
+     *
+     * @param account Account that received the transactions
+     * @param transactions Unmodifiable List with the Transactions that were added, in order
+     */
+    default void onTransactionsAdded(Account account, List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            onTransactionAdded(account, transaction);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.exercise.apam.model;
+
+import java.util.UUID;
+
+/**
+ * Generates unique Identifiers (Ex. for anonymous donors and transactions).
+ * Implementations must be thread safe.
+ */
+public interface IdGenerator {
+
+    /**
+     * Generator backed by {@link UUID#randomUUID()}, it uses SecureRandom and is slower under contention.
+     */
+    IdGenerator RANDOM_UUID = () -> Identifier.of(UUID.randomUUID());
+
+    /**
+     * Returns a new unique Identifier.
+     *
+     * @return Identifier that was never returned by this generator
+     */
+    Identifier nextId();
+}
@@ -0,0 +1,221 @@
+package br.com.exercise.apam.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact Id of a TransactionParty, Account or Transaction.
+ *
+ * Ids in the canonical lowercase UUID format (Ex. the ones from {@link UUID#toString()}) are kept as two longs,
+ * so they take less memory than the String and are hashed and compared without walking 36 chars.
+ * Any other id is kept as it is. {@link #toString()} always returns the original id.
+ */
+public final class Identifier {
+
+    private static final int UUID_LENGTH = 36;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final String value;
+
+    private Identifier(final long mostSignificantBits, final long leastSignificantBits, final String value) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.value = value;
+    }
+
+    /**
+     * Builds an Identifier from an id.
+     *
+     * @param id Id to be kept
+     *
+     * @return Identifier of the id, compact if the id is a canonical lowercase UUID
+     *
+     * @throws NullPointerException if id is null
+     */
+    public static Identifier of(final String id) {
+        Objects.requireNonNull(id, "id cannot be null");
+
+        if (id.length() != UUID_LENGTH) {
+            return new Identifier(0, 0, id);
+        }
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return new Identifier(0, 0, id);
+                }
+                continue;
+            }
+            int digit = hexDigit(c);
+            if (digit < 0) {
+                return new Identifier(0, 0, id);
+            }
+            if (i < 19) {
+                mostSignificantBits = mostSignificantBits << 4 | digit;
+            } else {
+                leastSignificantBits = leastSignificantBits << 4 | digit;
+            }
+        }
+        return new Identifier(mostSignificantBits, leastSignificantBits, null);
+    }
+
+    /**
+     * Builds a compact Identifier from a UUID.
+     *
+     * @param uuid UUID of the id
+     *
+     * @return Identifier whose {@link #toString()} is the same as the UUID one
+     *
+     * @throws NullPointerException if uuid is null
+     */
+    public static Identifier of(final UUID uuid) {
+        Objects.requireNonNull(uuid, "uuid cannot be null");
+
+        return of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Builds a compact Identifier from the bits of a UUID, without creating the UUID.
+     *
+     * @param mostSignificantBits Most significant bits of the UUID
+     * @param leastSignificantBits Least significant bits of the UUID
+     *
+     * @return Identifier whose {@link #toString()} is the same as the UUID one
+     */
+    public static Identifier of(final long mostSignificantBits, final long leastSignificantBits) {
+        return new Identifier(mostSignificantBits, leastSignificantBits, null);
+    }
+
+    /**
+     * Checks if the Identifier is kept as two longs.
+     *
+     * @return True if the id is a canonical UUID or False if the original String is kept.
+     */
+    public boolean isCompact() {
+        return value == null;
+    }
+
+    /**
+     * Returns the most significant bits of a compact Identifier, so it can be written without building its String.
+     *
+     * @return long with the most significant bits of the UUID or 0 if the Identifier is not compact
+     */
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * Returns the least significant bits of a compact Identifier, so it can be written without building its String.
+     *
+     * @return long with the least significant bits of the UUID or 0 if the Identifier is not compact
+     */
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    /**
+     * Writes the Identifier as [boolean compact] followed by the two longs of a compact Identifier
+     * or the original id in modified UTF-8 (see {@link DataOutput#writeUTF(String)}), read by {@link #readFrom(DataInput)}.
+     *
+     * @param output DataOutput that receives the Identifier
+     *
+     * @throws IOException if the Identifier cannot be written or the original id is longer than 65535 bytes
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeBoolean(value == null);
+        if (value == null) {
+            output.writeLong(mostSignificantBits);
+            output.writeLong(leastSignificantBits);
+        } else {
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads an Identifier written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input DataInput with the Identifier
+     *
+     * @return Identifier that was written
+     *
+     * @throws IOException if the Identifier cannot be read
+     */
+    public static Identifier readFrom(final DataInput input) throws IOException {
+        if (input.readBoolean()) {
+            return of(input.readLong(), input.readLong());
+        }
+        return of(input.readUTF());
+    }
+
+    /**
+     * Returns the original id.
+     *
+     * @return String representing the id, built on every call for compact Identifiers
+     */
+    @Override
+    public String toString() {
+        if (value != null) {
+            return value;
+        }
+        char[] chars = new char[UUID_LENGTH];
+        writeHex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    @Override
+    public int hashCode() {
+        if (value != null) {
+            return value.hashCode();
+        }
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        return (int) (hash >> 32) ^ (int) hash;
+    }
+
+    /**
+     * Two Identifiers are equal when they represent the same id.
+     *
+     * @param o Object to be compared.
+     *
+     * @return True if the object is an Identifier of the same id or False if not.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Identifier that = (Identifier) o;
+        return mostSignificantBits == that.mostSignificantBits
+                && leastSignificantBits == that.leastSignificantBits
+                && Objects.equals(value, that.value);
+    }
+
+    private static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static void writeHex(final char[] chars, final int offset, final long bits, final int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX_DIGITS[(int) (bits >>> (4 * (digits - 1 - i))) & 0xF];
+        }
+    }
+}
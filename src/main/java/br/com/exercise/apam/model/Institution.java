@@ -13,7 +13,7 @@ import java.util.Set;
  */
 public class Institution implements TransactionParty {
 
-    private final String id;
+    private final Identifier id;
     private final String name;
     private final Integer age;
     private final TransactionPartyType type;
@@ -39,20 +39,44 @@ public class Institution implements TransactionParty {
             throw new IllegalArgumentException("Type is not allowed for Institution");
         }
 
+        this.id = Identifier.of(id);
+        this.name = name;
+        this.age = age;
+        this.type = type;
+    }
+
+    private Institution(Identifier id, String name, Integer age, TransactionPartyType type) {
         this.id = id;
         this.name = name;
         this.age = age;
         this.type = type;
     }
 
+    /**
+     * Returns an Institution with already validated fields, see {@link TransactionParties#restore}.
+     */
+    static Institution restore(Identifier id, String name, int age, TransactionPartyType type) {
+        return new Institution(id, name, age, type);
+    }
+
     /**
      * Returns the Id of the Institution.
      *
      * @return String representing the Id of the Institution.
      */
     public String getId() {
-        return id;
+        return id.toString();
+
+    }
 
+    /**
+     * Returns the Id of the Institution as an Identifier.
+     *
+     * @return Identifier representing the Id of the Institution.
+     */
+    @Override
+    public Identifier getIdentifier() {
+        return id;
     }
 
     /**
@@ -84,4 +108,24 @@ public class Institution implements TransactionParty {
         return type;
 
     }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    /**
+     * Two Institutions are equal when they have the same id.
+     *
+     * @param o Object to be compared.
+     *
+     * @return True if the object is a Institution with the same id or False if not.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Institution that = (Institution) o;
+        return id.equals(that.id);
+    }
 }
@@ -0,0 +1,51 @@
+package br.com.exercise.apam.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Converts BRL amounts between BigDecimal reais and a long number of centavos.
+ *
+ * Hot paths keep their amounts as primitive centavos so they can do their arithmetic without allocating,
+ * converting from and to BigDecimal only at the API boundary.
+ */
+public final class Money {
+
+    /**
+     * Number of decimal places of a BRL amount.
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a BigDecimal value in reais to centavos.
+     *
+     * @param value Value in reais
+     * @param roundingMode RoundingMode used if the value has more than 2 decimal places
+     *
+     * @return long representing the number of centavos
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws ArithmeticException if the value does not fit in a long number of centavos
+     */
+    public static long toCents(final BigDecimal value, final RoundingMode roundingMode) {
+        Objects.requireNonNull(value, "value cannot be null");
+        Objects.requireNonNull(roundingMode, "roundingMode cannot be null");
+
+        return value.setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a number of centavos to a BigDecimal value in reais with 2 decimal places.
+     *
+     * @param cents Number of centavos
+     *
+     * @return BigDecimal representing the value in reais
+     */
+    public static BigDecimal toBigDecimal(final long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
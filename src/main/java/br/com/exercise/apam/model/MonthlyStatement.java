@@ -0,0 +1,85 @@
+package br.com.exercise.apam.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Statement of an Account for a month: totals by TransactionSubject and the balance at the start and end of the month.
+ * Statements are read-only copies, they do not change when new transactions are added to the Account.
+ */
+public final class MonthlyStatement {
+
+    private final YearMonth month;
+    private final Map<TransactionSubject, BigDecimal> totals;
+    private final int transactionCount;
+    private final BigDecimal openingBalance;
+    private final BigDecimal closingBalance;
+
+    MonthlyStatement(final YearMonth month, final Map<TransactionSubject, BigDecimal> totals, final int transactionCount,
+                     final BigDecimal openingBalance, final BigDecimal closingBalance) {
+        this.month = month;
+        this.totals = Collections.unmodifiableMap(new EnumMap<>(totals));
+        this.transactionCount = transactionCount;
+        this.openingBalance = openingBalance;
+        this.closingBalance = closingBalance;
+    }
+
+    /**
+     * Returns the Month of the statement.
+     *
+     * @return YearMonth representing the Month of the statement.
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Returns the Total posted in the month for each TransactionSubject.
+     *
+     * @return Read-only Map of TransactionSubject to its total, subjects without transactions are not present
+     */
+    public Map<TransactionSubject, BigDecimal> getTotals() {
+        return totals;
+    }
+
+    /**
+     * Returns the Total posted in the month for a TransactionSubject.
+     *
+     * @param subject TransactionSubject to be searched
+     *
+     * @return BigDecimal representing the total or zero if there are no transactions of the subject
+     */
+    public BigDecimal getTotal(final TransactionSubject subject) {
+        return totals.getOrDefault(subject, BigDecimal.ZERO);
+    }
+
+    /**
+     * Returns the number of Transactions posted in the month.
+     *
+     * @return int representing the number of Transactions.
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Returns the Balance of the Account at the start of the month.
+     *
+     * @return BigDecimal representing the opening Balance.
+     */
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    /**
+     * Returns the Balance of the Account at the end of the month.
+     *
+     * @return BigDecimal representing the closing Balance.
+     */
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+}
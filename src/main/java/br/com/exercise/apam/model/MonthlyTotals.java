@@ -0,0 +1,49 @@
+package br.com.exercise.apam.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Running totals of the Transactions of an Account posted in a month, indexed by TransactionSubject ordinal.
+ * It is not thread safe, the Account updates and reads it while holding its lock.
+ */
+final class MonthlyTotals {
+
+    private static final TransactionSubject[] SUBJECTS = TransactionSubject.values();
+
+    private final BigDecimal[] totals;
+    private BigDecimal netChange;
+    private int transactionCount;
+
+    MonthlyTotals() {
+        this.totals = new BigDecimal[SUBJECTS.length];
+        this.netChange = BigDecimal.ZERO;
+    }
+
+    void add(final TransactionSubject subject, final BigDecimal amount) {
+        int ordinal = subject.ordinal();
+        totals[ordinal] = totals[ordinal] == null ? amount : totals[ordinal].add(amount);
+        if (subject.getTransactionType() == TransactionType.OUT) {
+            netChange = netChange.subtract(amount);
+        } else {
+            netChange = netChange.add(amount);
+        }
+        transactionCount++;
+    }
+
+    BigDecimal getNetChange() {
+        return netChange;
+    }
+
+    MonthlyStatement toStatement(final YearMonth month, final BigDecimal openingBalance) {
+        Map<TransactionSubject, BigDecimal> totalsBySubject = new EnumMap<>(TransactionSubject.class);
+        for (int i = 0; i < totals.length; i++) {
+            if (totals[i] != null) {
+                totalsBySubject.put(SUBJECTS[i], totals[i]);
+            }
+        }
+        return new MonthlyStatement(month, totalsBySubject, transactionCount, openingBalance, openingBalance.add(netChange));
+    }
+}
@@ -4,19 +4,18 @@ import com.google.common.collect.ImmutableSet;
 
 import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * This class represents a Person that interacts with Apam.
  */
 public class Person implements TransactionParty {
-    private final String id;
+    private final Identifier id;
     private final String name;
     private final Integer age;
     private final TransactionPartyType type;
 
     /**
-     * Builds a new anonymous Person, setting the name to "Anonymous", a Random Generated UUID for id and 0 for age.
+     * Builds a new anonymous Person, setting the name to "Anonymous", a time ordered UUID for id and 0 for age.
      *
      * @param type Type of the person
      *
@@ -24,7 +23,21 @@ public class Person implements TransactionParty {
      * @throws NullPointerException if type parameter is null
      */
     public Person(TransactionPartyType type) throws IllegalArgumentException, NullPointerException {
+        this(type, TimeOrderedIdGenerator.INSTANCE);
+    }
+
+    /**
+     * Builds a new anonymous Person, setting the name to "Anonymous", an id from the IdGenerator and 0 for age.
+     *
+     * @param type Type of the person
+     * @param idGenerator IdGenerator of the person id
+     *
+     * @throws IllegalArgumentException if name is anonymous and type is not Donor
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public Person(TransactionPartyType type, IdGenerator idGenerator) throws IllegalArgumentException, NullPointerException {
         Objects.requireNonNull(type, "type cannot be null");
+        Objects.requireNonNull(idGenerator, "idGenerator cannot be null");
 
         if (type == TransactionPartyType.DONOR) {
             this.name = "Anonymous";
@@ -32,7 +45,7 @@ public class Person implements TransactionParty {
             throw new IllegalArgumentException("Anonymous type is only allowed for DONOR type");
         }
 
-        this.id = UUID.randomUUID().toString();
+        this.id = Objects.requireNonNull(idGenerator.nextId(), "id cannot be null");
         this.age = 0;
         this.type = type;
     }
@@ -63,18 +76,42 @@ public class Person implements TransactionParty {
         if ("Anonymous".equalsIgnoreCase(name) && type != TransactionPartyType.DONOR) {
             throw new IllegalArgumentException("Anonymous type is only allowed for DONOR type");
         }
+        this.id = Identifier.of(id);
+        this.name = name;
+        this.age = age;
+        this.type = type;
+    }
+
+    private Person(Identifier id, String name, Integer age, TransactionPartyType type) {
         this.id = id;
         this.name = name;
         this.age = age;
         this.type = type;
     }
 
+    /**
+     * Returns a Person with already validated fields, see {@link TransactionParties#restore}.
+     */
+    static Person restore(Identifier id, String name, int age, TransactionPartyType type) {
+        return new Person(id, name, age, type);
+    }
+
     /**
      * Return the Person Id.
      *
      * @return String representing the id of the Person.
      */
     public String getId() {
+        return id.toString();
+    }
+
+    /**
+     * Return the Person Id as an Identifier.
+     *
+     * @return Identifier representing the id of the Person.
+     */
+    @Override
+    public Identifier getIdentifier() {
         return id;
     }
 
@@ -104,4 +141,24 @@ public class Person implements TransactionParty {
     public TransactionPartyType getType() {
         return type;
     }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    /**
+     * Two Persons are equal when they have the same id.
+     *
+     * @param o Object to be compared.
+     *
+     * @return True if the object is a Person with the same id or False if not.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Person that = (Person) o;
+        return id.equals(that.id);
+    }
 }
@@ -0,0 +1,86 @@
+package br.com.exercise.apam.model;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * Generates time ordered version 7 UUIDs without touching SecureRandom on every call.
+ *
+ * The UUID is built from:
+ * 1. the current time in milliseconds (48 bits)
+ * 2. a key given to each thread the first time it generates an id (32 bits, split in the 12 bits before the variant
+ * and the 20 bits after it)
+ * 3. a sequence kept by each thread (42 bits)
+ *
+ * Each thread only touches its own sequence, so threads do not contend. Thread keys are taken in order from a
+ * random start and each thread starts its sequence at a random value, so 74 of the 122 bits are random: ids of
+ * generators in different processes only clash if two threads got the same key and overlapping sequences in the
+ * same millisecond. Ids are unique within a generator while each thread generates less than 2^42 ids, the
+ * generator refuses to give a key to more than 2^32 threads instead of reusing one.
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    /**
+     * Shared generator used by default for anonymous donors.
+     */
+    public static final TimeOrderedIdGenerator INSTANCE = new TimeOrderedIdGenerator();
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final int THREAD_SLOT_BITS = 20;
+    private static final int SEQUENCE_BITS = 42;
+    private static final long THREAD_KEYS = 1L << 32;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final SplittableRandom random;
+    private final long firstThreadKey;
+    private final ThreadLocal<ThreadState> threadState;
+    private long threads;
+
+    /**
+     * Builds a new TimeOrderedIdGenerator with a random first thread key.
+     */
+    public TimeOrderedIdGenerator() {
+        this.random = new SplittableRandom(new SecureRandom().nextLong());
+        this.firstThreadKey = random.nextLong() & (THREAD_KEYS - 1);
+        this.threadState = ThreadLocal.withInitial(this::newThreadState);
+    }
+
+    /**
+     * Returns a new time ordered Identifier.
+     *
+     * @return compact Identifier of a version 7 UUID
+     *
+     * @throws IllegalStateException if more than 2^32 threads generated ids with this generator
+     */
+    @Override
+    public Identifier nextId() {
+        ThreadState state = threadState.get();
+        long mostSignificantBits = System.currentTimeMillis() << 16 | VERSION | state.node;
+        long leastSignificantBits = VARIANT | state.slot | state.sequence++ & SEQUENCE_MASK;
+        return Identifier.of(mostSignificantBits, leastSignificantBits);
+    }
+
+    private synchronized ThreadState newThreadState() {
+        if (threads == THREAD_KEYS) {
+            throw new IllegalStateException("Every thread key of the generator is taken");
+        }
+        long threadKey = (firstThreadKey + threads++) & (THREAD_KEYS - 1);
+        return new ThreadState(threadKey, random.nextLong());
+    }
+
+    /**
+     * Key bits and sequence of a thread.
+     */
+    private static final class ThreadState {
+        private final long node;
+        private final long slot;
+        private long sequence;
+
+        private ThreadState(final long threadKey, final long firstSequence) {
+            this.node = threadKey >>> THREAD_SLOT_BITS;
+            this.slot = (threadKey & ((1L << THREAD_SLOT_BITS) - 1)) << SEQUENCE_BITS;
+            this.sequence = firstSequence;
+        }
+    }
+}
@@ -1,23 +1,22 @@
 package br.com.exercise.apam.model;
 
 import br.com.exercise.apam.model.TransactionParty;
-import br.com.exercise.apam.model.TransactionPartyType;
 import br.com.exercise.apam.model.TransactionSubject;
 
 import java.math.BigDecimal;
-import java.util.EnumSet;
+import java.time.Instant;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Represents a Transaction on Apam
  */
 public class Transaction {
-    private final String id;
+    private final Identifier id;
     private final String description;
     private final BigDecimal value;
     private final TransactionSubject subject;
     private final TransactionParty party;
+    private final Instant postedAt;
 
     /**
      * Builds a new Transaction following these rules:
@@ -25,7 +24,8 @@ public class Transaction {
      *   2. DONATION subject could have only [DONOR, COMPANY] Parties.
      *   3. PAYMENT subject could have only [EMPLOYEE, SERVICE_PROVIDER, COMPANY] Parties.
      *   4. CHILD_PAYMENT subject could have only [CITY_HALL] Parties.
-     *   5. CHILD_SALARY subject could have only [CHILD] Parties.
+     *   5. CHILD_SALARY subject could have only [COMPANY] Parties.
+     *   6. The Transaction is posted at the current instant.
      *
      * @param id Id of the Transaction.
      * @param description Description of the Transaction.
@@ -37,18 +37,101 @@ public class Transaction {
      * @throws IllegalArgumentException if one the above rules are broken
      */
     public Transaction(String id, String description, BigDecimal value, TransactionSubject subject, TransactionParty party) {
+        this(id, description, value, subject, party, Instant.now());
+    }
+
+    /**
+     * Builds a new Transaction posted at a given instant, following the same rules of
+     * {@link #Transaction(String, String, BigDecimal, TransactionSubject, TransactionParty)}.
+     *
+     * @param id Id of the Transaction.
+     * @param description Description of the Transaction.
+     * @param value Value of the Transaction.
+     * @param subject Subject of the Transaction.
+     * @param party Party of the Transaction.
+     * @param postedAt Instant the Transaction was posted.
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if one the rules are broken
+     */
+    public Transaction(String id, String description, BigDecimal value, TransactionSubject subject, TransactionParty party, Instant postedAt) {
+        this(Identifier.of(Objects.requireNonNull(id, "id cannot be null")), description, value, subject, party, postedAt);
+    }
+
+    /**
+     * Builds a new Transaction with an id from the IdGenerator, following the same rules of
+     * {@link #Transaction(String, String, BigDecimal, TransactionSubject, TransactionParty)}.
+     *
+     * @param idGenerator IdGenerator of the Transaction id.
+     * @param description Description of the Transaction.
+     * @param value Value of the Transaction.
+     * @param subject Subject of the Transaction.
+     * @param party Party of the Transaction.
+     *
+     * @return Transaction with a new id
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if one the rules are broken
+     */
+    public static Transaction create(IdGenerator idGenerator, String description, BigDecimal value, TransactionSubject subject, TransactionParty party) {
+        Objects.requireNonNull(idGenerator, "idGenerator cannot be null");
+
+        return new Transaction(idGenerator.nextId(), description, value, subject, party, Instant.now());
+    }
+
+    /**
+     * Restores a Transaction without validating its rules again.
+     * It is meant to load data that was already validated and is checked by other means (ex. a checksum verified snapshot),
+     * any other use should build the Transaction with its constructors.
+     *
+     * @param id Identifier of the Transaction.
+     * @param description Description of the Transaction.
+     * @param value Value of the Transaction.
+     * @param subject Subject of the Transaction.
+     * @param party Party of the Transaction.
+     * @param postedAt Instant the Transaction was posted.
+     *
+     * @return Transaction with the given fields
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static Transaction restore(Identifier id, String description, BigDecimal value, TransactionSubject subject, TransactionParty party, Instant postedAt) {
+        return new Transaction(id, description, value, subject, party, postedAt, false);
+    }
+
+    /**
+     * Builds a new Transaction with an Identifier posted at a given instant, following the same rules of
+     * {@link #Transaction(String, String, BigDecimal, TransactionSubject, TransactionParty)}.
+     * It is used when the id is already an Identifier (Ex. decoded from a buffer), so it is not turned into a String.
+     *
+     * @param id Identifier of the Transaction.
+     * @param description Description of the Transaction.
+     * @param value Value of the Transaction.
+     * @param subject Subject of the Transaction.
+     * @param party Party of the Transaction.
+     * @param postedAt Instant the Transaction was posted.
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if one the rules are broken
+     */
+    public Transaction(Identifier id, String description, BigDecimal value, TransactionSubject subject, TransactionParty party, Instant postedAt) {
+        this(id, description, value, subject, party, postedAt, true);
+    }
+
+    private Transaction(Identifier id, String description, BigDecimal value, TransactionSubject subject, TransactionParty party, Instant postedAt,
+                        boolean checkRules) {
         Objects.requireNonNull(id, "id cannot be null");
         Objects.requireNonNull(description, "description cannot be null");
         Objects.requireNonNull(value, "value cannot be null");
         Objects.requireNonNull(subject, "subject cannot be null");
         Objects.requireNonNull(party, "party cannot be null");
+        Objects.requireNonNull(postedAt, "postedAt cannot be null");
 
-        if (value.compareTo(BigDecimal.ZERO) <= 0) {
+        if (checkRules && value.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Value must be above 0");
         }
 
-        Set<TransactionPartyType> allowedPartiesForSubject = getAllowedPartiesForSubject(subject);
-        if (!allowedPartiesForSubject.contains(party.getType())) {
+        if (checkRules && !TransactionRules.isPartyTypeAllowed(subject, party.getType())) {
             throw new IllegalArgumentException("Party type is not allowed for subject");
         }
 
@@ -57,21 +140,7 @@ public class Transaction {
         this.value = value;
         this.subject = subject;
         this.party = party;
-    }
-
-    private Set<TransactionPartyType> getAllowedPartiesForSubject(TransactionSubject subject) {
-        switch (subject) {
-            case DONATION:
-                return EnumSet.of(TransactionPartyType.DONOR, TransactionPartyType.COMPANY);
-            case PAYMENT:
-                return EnumSet.of(TransactionPartyType.EMPLOYEE, TransactionPartyType.SERVICE_PROVIDER, TransactionPartyType.COMPANY);
-            case CHILD_PAYMENT:
-                return EnumSet.of(TransactionPartyType.CITY_HALL);
-            case CHILD_SALARY:
-                return EnumSet.of(TransactionPartyType.CHILD);
-            default:
-                return EnumSet.noneOf(TransactionPartyType.class);
-        }
+        this.postedAt = postedAt;
     }
 
     /**
@@ -80,6 +149,15 @@ public class Transaction {
      * @return String representing the id of the Transaction.
      */
     public String getId() {
+        return id.toString();
+    }
+
+    /**
+     * Returns the Id of the Transaction as an Identifier.
+     *
+     * @return Identifier representing the id of the Transaction.
+     */
+    public Identifier getIdentifier() {
         return id;
     }
 
@@ -127,4 +205,33 @@ public class Transaction {
     public BigDecimal getAmount() {
         return value;
     }
+
+    /**
+     * Returns the Instant the Transaction was posted.
+     *
+     * @return Instant representing when the Transaction was posted.
+     */
+    public Instant getPostedAt() {
+        return postedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    /**
+     * Two transactions are equal when they have the same id.
+     *
+     * @param o Object to be compared.
+     *
+     * @return True if the object is a Transaction with the same id or False if not.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Transaction that = (Transaction) o;
+        return id.equals(that.id);
+    }
 }
@@ -0,0 +1,67 @@
+package br.com.exercise.apam.model;
+
+import java.util.Objects;
+
+/**
+ * Builds TransactionParties choosing the right implementation for each TransactionPartyType.
+ */
+public final class TransactionParties {
+
+    private TransactionParties() {
+    }
+
+    /**
+     * Builds a new TransactionParty following these rules:
+     * 1. CITY_HALL and COMPANY types are built as Institution
+     * 2. All other types are built as Person
+     *
+     * @param id Id of the TransactionParty
+     * @param name Name of the TransactionParty
+     * @param age Age of the TransactionParty
+     * @param type Type of the TransactionParty
+     *
+     * @return TransactionParty built with the Person or Institution rules
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the Person or Institution rules are broken
+     */
+    public static TransactionParty create(final String id, final String name, final Integer age, final TransactionPartyType type) {
+        Objects.requireNonNull(type, "type cannot be null");
+
+        switch (type) {
+            case CITY_HALL:
+            case COMPANY:
+                return new Institution(id, name, age, type);
+            default:
+                return new Person(id, name, age, type);
+        }
+    }
+
+    /**
+     * Restores a TransactionParty without validating the Person or Institution rules again.
+     * It is meant to load data that was already validated and is checked by other means (ex. a checksum verified snapshot),
+     * any other use should call {@link #create(String, String, Integer, TransactionPartyType)}.
+     *
+     * @param id Identifier of the TransactionParty
+     * @param name Name of the TransactionParty
+     * @param age Age of the TransactionParty
+     * @param type Type of the TransactionParty
+     *
+     * @return TransactionParty built as Person or Institution for its type
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static TransactionParty restore(final Identifier id, final String name, final int age, final TransactionPartyType type) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(name, "name cannot be null");
+        Objects.requireNonNull(type, "type cannot be null");
+
+        switch (type) {
+            case CITY_HALL:
+            case COMPANY:
+                return Institution.restore(id, name, age, type);
+            default:
+                return Person.restore(id, name, age, type);
+        }
+    }
+}
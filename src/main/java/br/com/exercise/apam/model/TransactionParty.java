@@ -12,6 +12,15 @@ public interface TransactionParty {
      */
     String getId();
 
+    /**
+     * Returns the Id of the TransactionParty as an Identifier, used as key to look the TransactionParty up.
+     *
+     * @return Identifier representing the Id of the TransactionParty.
+     */
+    default Identifier getIdentifier() {
+        return Identifier.of(getId());
+    }
+
     /**
      * Returns the Name of the TransactionParty.
      *
@@ -0,0 +1,88 @@
+package br.com.exercise.apam.model;
+
+import java.util.Objects;
+
+/**
+ * Holds the rules of which transactions are allowed on Apam:
+ * 1. CITY_HALL_ACCOUNT accounts only accepts [CHILD_PAYMENT, PAYMENT] transactions subject.
+ * 2. CHILD_ACCOUNT accounts only accepts [CHILD_SALARY, PAYMENT] transactions subject.
+ * 3. DONATION_ACCOUNT accounts only accepts [DONATION, PAYMENT] transactions subject.
+ * 4. DONATION subject could have only [DONOR, COMPANY] Parties.
+ * 5. PAYMENT subject could have only [EMPLOYEE, SERVICE_PROVIDER, COMPANY] Parties.
+ * 6. CHILD_PAYMENT subject could have only [CITY_HALL] Parties.
+ * 7. CHILD_SALARY subject could have only [COMPANY] Parties.
+ *
+ * The rules are kept in immutable bitmask tables indexed by the enum ordinals, so checking them does not allocate.
+ */
+public final class TransactionRules {
+
+    private static final int[] ALLOWED_SUBJECTS_BY_ACCOUNT_TYPE = new int[AccountType.values().length];
+    private static final int[] ALLOWED_PARTY_TYPES_BY_SUBJECT = new int[TransactionSubject.values().length];
+
+    static {
+        ALLOWED_SUBJECTS_BY_ACCOUNT_TYPE[AccountType.CITY_HALL_ACCOUNT.ordinal()] =
+                mask(TransactionSubject.CHILD_PAYMENT, TransactionSubject.PAYMENT);
+        ALLOWED_SUBJECTS_BY_ACCOUNT_TYPE[AccountType.CHILD_ACCOUNT.ordinal()] =
+                mask(TransactionSubject.CHILD_SALARY, TransactionSubject.PAYMENT);
+        ALLOWED_SUBJECTS_BY_ACCOUNT_TYPE[AccountType.DONATION_ACCOUNT.ordinal()] =
+                mask(TransactionSubject.DONATION, TransactionSubject.PAYMENT);
+
+        ALLOWED_PARTY_TYPES_BY_SUBJECT[TransactionSubject.DONATION.ordinal()] =
+                mask(TransactionPartyType.DONOR, TransactionPartyType.COMPANY);
+        ALLOWED_PARTY_TYPES_BY_SUBJECT[TransactionSubject.PAYMENT.ordinal()] =
+                mask(TransactionPartyType.EMPLOYEE, TransactionPartyType.SERVICE_PROVIDER, TransactionPartyType.COMPANY);
+        ALLOWED_PARTY_TYPES_BY_SUBJECT[TransactionSubject.CHILD_PAYMENT.ordinal()] =
+                mask(TransactionPartyType.CITY_HALL);
+        ALLOWED_PARTY_TYPES_BY_SUBJECT[TransactionSubject.CHILD_SALARY.ordinal()] =
+                mask(TransactionPartyType.COMPANY);
+    }
+
+    private TransactionRules() {
+    }
+
+    /**
+     * Checks if an account type accepts transactions of a subject.
+     *
+     * @param accountType AccountType of the account
+     * @param subject TransactionSubject of the transaction
+     *
+     * @return True if the subject is allowed or False if not.
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static boolean isSubjectAllowed(final AccountType accountType, final TransactionSubject subject) {
+        Objects.requireNonNull(accountType, "accountType cannot be null");
+        Objects.requireNonNull(subject, "subject cannot be null");
+
+        return (ALLOWED_SUBJECTS_BY_ACCOUNT_TYPE[accountType.ordinal()] & bit(subject)) != 0;
+    }
+
+    /**
+     * Checks if a party type can be the party of transactions of a subject.
+     *
+     * @param subject TransactionSubject of the transaction
+     * @param partyType TransactionPartyType of the party
+     *
+     * @return True if the party type is allowed or False if not.
+     *
+     * @throws NullPointerException if any of the parameters are null
+     */
+    public static boolean isPartyTypeAllowed(final TransactionSubject subject, final TransactionPartyType partyType) {
+        Objects.requireNonNull(subject, "subject cannot be null");
+        Objects.requireNonNull(partyType, "partyType cannot be null");
+
+        return (ALLOWED_PARTY_TYPES_BY_SUBJECT[subject.ordinal()] & bit(partyType)) != 0;
+    }
+
+    private static int bit(final Enum<?> value) {
+        return 1 << value.ordinal();
+    }
+
+    private static int mask(final Enum<?>... values) {
+        int mask = 0;
+        for (Enum<?> value : values) {
+            mask |= bit(value);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.exercise.apam.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * List of the Transactions of an Account kept outside the heap (Ex. a MappedTransactionStore).
+ *
+ * An Account built with it does not build every stored Transaction: duplicated ids are checked with
+ * {@link #containsTransactionId(Identifier)} instead of a heap set of ids, and the balance and monthly totals are
+ * rebuilt with {@link #forEachPosting(PostingConsumer)}. Transactions are only built when the list is read.
+ */
+public interface TransactionStorage extends List<Transaction> {
+
+    /**
+     * Checks if a Transaction with the given id is in the storage.
+     *
+     * @param transactionId Identifier of the Transaction
+     *
+     * @return True if the transaction is stored or False if not.
+     */
+    boolean containsTransactionId(Identifier transactionId);
+
+    /**
+     * Calls the consumer with the value, subject and posting instant of each stored Transaction, in order,
+     * without building the Transactions.
+     *
+     * @param consumer PostingConsumer to be called
+     */
+    void forEachPosting(PostingConsumer consumer);
+
+    /**
+     * Receives the fields of a stored Transaction that change the balance of an Account.
+     */
+    @FunctionalInterface
+    interface PostingConsumer {
+
+        /**
+         * Called for each stored Transaction.
+         *
+         * @param value Value of the Transaction
+         * @param subject TransactionSubject of the Transaction
+         * @param postedAt Instant the Transaction was posted at
+         */
+        void accept(BigDecimal value, TransactionSubject subject, Instant postedAt);
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.exercise.apam.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File mapped in fixed size segments, so it can grow past the 2GB limit of a single mapping.
+ * Values must not cross a segment boundary, fixed width values are aligned by their callers.
+ */
+final class MappedFile implements Closeable {
+
+    static final int SEGMENT_SHIFT = 24;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments;
+
+    MappedFile(final Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segments = new ArrayList<>();
+        ensureCapacity(channel.size());
+    }
+
+    void ensureCapacity(final long size) throws IOException {
+        while ((long) segments.size() << SEGMENT_SHIFT < size) {
+            long position = (long) segments.size() << SEGMENT_SHIFT;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_SIZE));
+        }
+    }
+
+    byte getByte(final long position) {
+        return segment(position).get(offset(position));
+    }
+
+    void putByte(final long position, final byte value) {
+        segment(position).put(offset(position), value);
+    }
+
+    int getInt(final long position) {
+        return segment(position).getInt(offset(position));
+    }
+
+    void putInt(final long position, final int value) {
+        segment(position).putInt(offset(position), value);
+    }
+
+    long getLong(final long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    void putLong(final long position, final long value) {
+        segment(position).putLong(offset(position), value);
+    }
+
+    byte[] getBytes(final long position, final int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = segment(position).duplicate();
+        view.position(offset(position));
+        view.get(bytes);
+        return bytes;
+    }
+
+    void putBytes(final long position, final byte[] bytes) {
+        ByteBuffer view = segment(position).duplicate();
+        view.position(offset(position));
+        view.put(bytes);
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments.clear();
+        channel.close();
+    }
+
+    static int remainingInSegment(final long position) {
+        return SEGMENT_SIZE - offset(position);
+    }
+
+    private MappedByteBuffer segment(final long position) {
+        return segments.get((int) (position >>> SEGMENT_SHIFT));
+    }
+
+    private static int offset(final long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.exercise.apam.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.IntPredicate;
+
+/**
+ * Open addressing hash table of int values (Ex. row or id numbers) kept in a MappedFile instead of the heap.
+ * Only the values are stored, callers give the hash of a key and check if the values found for it match the key.
+ * The index is derived from other files, so it is rebuilt by its caller instead of being synced.
+ */
+final class MappedHashIndex implements Closeable {
+
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int EMPTY = 0;
+
+    private final MappedFile file;
+    private int mask;
+    private int size;
+
+    MappedHashIndex(final Path path) throws IOException {
+        this.file = new MappedFile(path);
+    }
+
+    /**
+     * Empties the index, making room for the given number of values.
+     *
+     * @throws IllegalStateException if the index cannot hold that many values
+     */
+    void clear(final long expectedValues) throws IOException {
+        if (expectedValues * 2 > MAX_CAPACITY) {
+            throw new IllegalStateException("Index is full");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedValues * 2) {
+            capacity <<= 1;
+        }
+        file.ensureCapacity((long) capacity * Integer.BYTES);
+        for (int slot = 0; slot < capacity; slot++) {
+            file.putInt((long) slot * Integer.BYTES, EMPTY);
+        }
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Returns True if adding a value would leave the index more than half full, so it should be rebuilt bigger.
+     */
+    boolean isFull() {
+        return (size + 1L) * 2 > mask + 1L;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the first value added with the hash that matches, or -1 if none does.
+     */
+    int find(final int hash, final IntPredicate matches) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = file.getInt((long) slot * Integer.BYTES);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (matches.test(entry - 1)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Adds a non negative value lower than Integer.MAX_VALUE, the index must not be full.
+     */
+    void add(final int hash, final int value) {
+        int slot = hash & mask;
+        while (file.getInt((long) slot * Integer.BYTES) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        file.putInt((long) slot * Integer.BYTES, value + 1);
+        size++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    static int hash(final long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
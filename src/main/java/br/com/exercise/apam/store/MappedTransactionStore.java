@@ -0,0 +1,650 @@
+package br.com.exercise.apam.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParties;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionStorage;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Append only store of the Transactions of many Accounts, kept in memory-mapped columns instead of the heap.
+ * Each account gets its list from {@link #getTransactions(String)}, which can be given to
+ * {@link br.com.exercise.apam.model.Account#Account(String, String, br.com.exercise.apam.model.AccountType, List)}
+ * so the account transactions and their ids are kept out of the heap.
+ *
+ * Every transaction is a row split over these columns:
+ * 1. amounts: unscaled value of the amount as a long
+ * 2. scales: scale of the amount as a byte
+ * 3. subjects: ordinal of the TransactionSubject as a byte
+ * 4. party-refs: index of the party in the party table as an int
+ * 5. id-refs: index of the transaction id in the id table as an int
+ * 6. descriptions: offset of the description in the string pool as a long
+ * 7. posting-seconds and posting-nanos: posting instant as epoch seconds (long) and nanoseconds (int)
+ *
+ * Rows are allocated to the accounts in blocks of {@value #BLOCK_ROWS} rows, so every account shares the same files.
+ * The block table keeps the account of each block and the account table keeps the id and the size of each account.
+ * Ids of transactions, parties and accounts are interned in the id table, as two longs for UUIDs or as an offset in
+ * the string pool for any other id. Amounts that do not fit in a long or a byte scale are stored in the string pool.
+ *
+ * The ids and rows are found through hash indexes kept in memory-mapped files too, they are rebuilt from the columns
+ * the first time they are needed, so opening a store only reads the party, account and block tables. Transactions
+ * are only built when a list is read, an Account is rebuilt from the columns with
+ * {@link TransactionStorage#forEachPosting(TransactionStorage.PostingConsumer)}.
+ *
+ * Every list of the store is guarded by the store lock, so lists of different accounts can be used by different
+ * threads, but their reads and appends are serialized. Each list must still be accessed while synchronized on its
+ * Account when transactions may be added concurrently. Appended transactions are durable after {@link #sync()}.
+ */
+public final class MappedTransactionStore implements Closeable {
+
+    private static final long HEADER_SIZE = Long.BYTES;
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_ROWS = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_ROWS - 1;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE >>> BLOCK_SHIFT;
+    private static final byte POOLED_AMOUNT_SCALE = Byte.MIN_VALUE;
+    private static final byte STRING_ID = 0;
+    private static final byte COMPACT_ID = 1;
+    private static final int ID_RECORD_SIZE = 3 * Long.BYTES;
+    private static final int PARTY_RECORD_SIZE = 3 * Long.BYTES;
+    private static final int ACCOUNT_RECORD_SIZE = 2 * Integer.BYTES;
+    private static final TransactionSubject[] SUBJECTS = TransactionSubject.values();
+    private static final TransactionPartyType[] PARTY_TYPES = TransactionPartyType.values();
+
+    private final MappedFile amounts;
+    private final MappedFile scales;
+    private final MappedFile subjects;
+    private final MappedFile partyRefs;
+    private final MappedFile idRefs;
+    private final MappedFile descriptions;
+    private final MappedFile postingSeconds;
+    private final MappedFile postingNanos;
+    private final MappedFile strings;
+    private final MappedFile idTable;
+    private final MappedFile partyTable;
+    private final MappedFile accountTable;
+    private final MappedFile blockTable;
+    private final MappedHashIndex idIndex;
+    private final MappedHashIndex rowIndex;
+    private final List<TransactionParty> parties;
+    private final Map<Identifier, Integer> partyIndexes;
+    private final List<AccountTransactions> accounts;
+    private final Map<Identifier, AccountTransactions> accountsById;
+    private long stringsSize;
+    private int idCount;
+    private int blockCount;
+    private boolean idIndexBuilt;
+    private boolean rowIndexBuilt;
+    private boolean closed;
+
+    private MappedTransactionStore(final Path directory) throws IOException {
+        this.amounts = new MappedFile(directory.resolve("amounts"));
+        this.scales = new MappedFile(directory.resolve("scales"));
+        this.subjects = new MappedFile(directory.resolve("subjects"));
+        this.partyRefs = new MappedFile(directory.resolve("party-refs"));
+        this.idRefs = new MappedFile(directory.resolve("id-refs"));
+        this.descriptions = new MappedFile(directory.resolve("descriptions"));
+        this.postingSeconds = new MappedFile(directory.resolve("posting-seconds"));
+        this.postingNanos = new MappedFile(directory.resolve("posting-nanos"));
+        this.strings = new MappedFile(directory.resolve("strings"));
+        this.idTable = new MappedFile(directory.resolve("id-table"));
+        this.partyTable = new MappedFile(directory.resolve("party-table"));
+        this.accountTable = new MappedFile(directory.resolve("account-table"));
+        this.blockTable = new MappedFile(directory.resolve("block-table"));
+        this.idIndex = new MappedHashIndex(directory.resolve("id-index"));
+        this.rowIndex = new MappedHashIndex(directory.resolve("row-index"));
+        this.parties = new ArrayList<>();
+        this.partyIndexes = new HashMap<>();
+        this.accounts = new ArrayList<>();
+        this.accountsById = new HashMap<>();
+
+        for (MappedFile table : new MappedFile[]{strings, idTable, partyTable, accountTable, blockTable}) {
+            table.ensureCapacity(HEADER_SIZE);
+        }
+        this.stringsSize = Math.max(HEADER_SIZE, strings.getLong(0));
+        this.idCount = (int) idTable.getLong(0);
+        this.blockCount = (int) blockTable.getLong(0);
+
+        long partyCount = partyTable.getLong(0);
+        for (int i = 0; i < partyCount; i++) {
+            long position = HEADER_SIZE + (long) i * PARTY_RECORD_SIZE;
+            String name = readString(partyTable.getLong(position));
+            String id = readIdentifier(partyTable.getInt(position + Long.BYTES)).toString();
+            int age = partyTable.getInt(position + Long.BYTES + Integer.BYTES);
+            TransactionPartyType type = PARTY_TYPES[partyTable.getByte(position + Long.BYTES + Long.BYTES)];
+            TransactionParty party = TransactionParties.create(id, name, age, type);
+            partyIndexes.put(party.getIdentifier(), parties.size());
+            parties.add(party);
+        }
+
+        long accountCount = accountTable.getLong(0);
+        for (int i = 0; i < accountCount; i++) {
+            long position = accountPosition(i);
+            AccountTransactions account = new AccountTransactions(i, accountTable.getInt(position + Integer.BYTES));
+            accounts.add(account);
+            accountsById.put(readIdentifier(accountTable.getInt(position)), account);
+        }
+        for (int block = 0; block < blockCount; block++) {
+            accounts.get(blockTable.getInt(blockPosition(block))).addBlock(block);
+        }
+    }
+
+    /**
+     * Opens the store kept in a directory, creating it if it does not exist.
+     * Transactions already in the store are kept.
+     *
+     * @param directory Path of the directory with the column files
+     *
+     * @return MappedTransactionStore with the transactions of the directory
+     *
+     * @throws IOException if the directory or its files cannot be opened
+     * @throws NullPointerException if directory is null
+     */
+    public static MappedTransactionStore open(final Path directory) throws IOException {
+        Objects.requireNonNull(directory, "directory cannot be null");
+
+        Files.createDirectories(directory);
+        return new MappedTransactionStore(directory);
+    }
+
+    /**
+     * Returns the list with the Transactions of an Account, adding the account to the store if it is not there.
+     * The same list is returned for the same id while the store is open.
+     *
+     * @param accountId Id of the Account
+     *
+     * @return TransactionStorage with the Transactions of the account
+     *
+     * @throws NullPointerException if accountId is null
+     * @throws IllegalStateException if the store is closed
+     * @throws UncheckedIOException if the account table cannot be grown
+     */
+    public synchronized TransactionStorage getTransactions(final String accountId) {
+        Objects.requireNonNull(accountId, "accountId cannot be null");
+        checkOpen();
+
+        Identifier identifier = Identifier.of(accountId);
+        AccountTransactions account = accountsById.get(identifier);
+        if (account != null) {
+            return account;
+        }
+
+        try {
+            int idRef = internIdentifier(identifier);
+            account = new AccountTransactions(accounts.size(), 0);
+            long position = accountPosition(account.accountIndex);
+            accountTable.ensureCapacity(position + ACCOUNT_RECORD_SIZE);
+            accountTable.putInt(position, idRef);
+            accountTable.putInt(position + Integer.BYTES, 0);
+            accounts.add(account);
+            accountsById.put(identifier, account);
+            accountTable.putLong(0, accounts.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return account;
+    }
+
+    /**
+     * Forces every appended Transaction to be written to the disk.
+     *
+     * @throws IllegalStateException if the store is closed
+     */
+    public synchronized void sync() {
+        checkOpen();
+        for (MappedFile file : files()) {
+            file.force();
+        }
+    }
+
+    /**
+     * Writes every appended Transaction to the disk and closes the files.
+     *
+     * @throws IOException if any of the files cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        List<Closeable> closeables = new ArrayList<>(Arrays.asList(files()));
+        closeables.add(idIndex);
+        closeables.add(rowIndex);
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private MappedFile[] files() {
+        return new MappedFile[]{amounts, scales, subjects, partyRefs, idRefs, descriptions, postingSeconds, postingNanos,
+                strings, idTable, partyTable, accountTable, blockTable};
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+    }
+
+    private Transaction readTransaction(final int slot) {
+        String id = readIdentifier(idRefs.getInt(columnPosition(slot, Integer.BYTES))).toString();
+        String description = readString(descriptions.getLong(columnPosition(slot, Long.BYTES)));
+        TransactionParty party = parties.get(partyRefs.getInt(columnPosition(slot, Integer.BYTES)));
+        return new Transaction(id, description, readAmount(slot), readSubject(slot), party, readPostedAt(slot));
+    }
+
+    private void writeTransaction(final AccountTransactions account, final Transaction transaction) throws IOException {
+        int row = account.size;
+        if ((row & BLOCK_MASK) == 0) {
+            account.addBlock(allocateBlock(account.accountIndex));
+        }
+        int slot = account.slot(row);
+        int idRef = internIdentifier(transaction.getIdentifier());
+
+        writeAmount(slot, transaction.getValue());
+        subjects.putByte(slot, (byte) transaction.getSubject().ordinal());
+        partyRefs.putInt(columnPosition(slot, Integer.BYTES), partyIndex(transaction.getParty()));
+        idRefs.putInt(columnPosition(slot, Integer.BYTES), idRef);
+        descriptions.putLong(columnPosition(slot, Long.BYTES), writeString(transaction.getDescription()));
+        postingSeconds.putLong(columnPosition(slot, Long.BYTES), transaction.getPostedAt().getEpochSecond());
+        postingNanos.putInt(columnPosition(slot, Integer.BYTES), transaction.getPostedAt().getNano());
+
+        if (rowIndexBuilt && rowIndex.isFull()) {
+            rebuildRowIndex();
+        }
+        account.size++;
+        accountTable.putInt(accountPosition(account.accountIndex) + Integer.BYTES, account.size);
+        if (rowIndexBuilt) {
+            rowIndex.add(rowHash(account.accountIndex, idRef), slot);
+        }
+    }
+
+    private int allocateBlock(final int accountIndex) throws IOException {
+        if (blockCount == MAX_BLOCKS) {
+            throw new IllegalStateException("Store is full");
+        }
+        int block = blockCount;
+        long slots = (long) (block + 1) << BLOCK_SHIFT;
+        amounts.ensureCapacity(columnPosition(slots, Long.BYTES));
+        scales.ensureCapacity(slots);
+        subjects.ensureCapacity(slots);
+        partyRefs.ensureCapacity(columnPosition(slots, Integer.BYTES));
+        idRefs.ensureCapacity(columnPosition(slots, Integer.BYTES));
+        descriptions.ensureCapacity(columnPosition(slots, Long.BYTES));
+        postingSeconds.ensureCapacity(columnPosition(slots, Long.BYTES));
+        postingNanos.ensureCapacity(columnPosition(slots, Integer.BYTES));
+        blockTable.ensureCapacity(blockPosition(block + 1));
+
+        blockTable.putInt(blockPosition(block), accountIndex);
+        blockCount++;
+        blockTable.putLong(0, blockCount);
+        return block;
+    }
+
+    private boolean containsRow(final int accountIndex, final Identifier transactionId) throws IOException {
+        int idRef = findIdentifier(transactionId);
+        if (idRef < 0) {
+            return false;
+        }
+        if (!rowIndexBuilt) {
+            rebuildRowIndex();
+            rowIndexBuilt = true;
+        }
+        return rowIndex.find(rowHash(accountIndex, idRef), slot ->
+                idRefs.getInt(columnPosition(slot, Integer.BYTES)) == idRef
+                        && blockTable.getInt(blockPosition(slot >>> BLOCK_SHIFT)) == accountIndex) >= 0;
+    }
+
+    private void rebuildRowIndex() throws IOException {
+        long rows = 0;
+        for (AccountTransactions account : accounts) {
+            rows += account.size;
+        }
+        rowIndex.clear(rows * 2);
+        for (AccountTransactions account : accounts) {
+            for (int row = 0; row < account.size; row++) {
+                int slot = account.slot(row);
+                rowIndex.add(rowHash(account.accountIndex, idRefs.getInt(columnPosition(slot, Integer.BYTES))), slot);
+            }
+        }
+    }
+
+    private int internIdentifier(final Identifier identifier) throws IOException {
+        int idRef = findIdentifier(identifier);
+        if (idRef >= 0) {
+            return idRef;
+        }
+        if (idCount == Integer.MAX_VALUE - 1) {
+            throw new IllegalStateException("Store is full");
+        }
+        if (idIndex.isFull()) {
+            rebuildIdIndex();
+        }
+
+        long position = idPosition(idCount);
+        idTable.ensureCapacity(position + ID_RECORD_SIZE);
+        if (identifier.isCompact()) {
+            idTable.putLong(position, identifier.getMostSignificantBits());
+            idTable.putLong(position + Long.BYTES, identifier.getLeastSignificantBits());
+            idTable.putByte(position + Long.BYTES + Long.BYTES, COMPACT_ID);
+        } else {
+            idTable.putLong(position, writeString(identifier.toString()));
+            idTable.putByte(position + Long.BYTES + Long.BYTES, STRING_ID);
+        }
+        idRef = idCount++;
+        idTable.putLong(0, idCount);
+        idIndex.add(identifierHash(identifier), idRef);
+        return idRef;
+    }
+
+    private int findIdentifier(final Identifier identifier) throws IOException {
+        if (!idIndexBuilt) {
+            rebuildIdIndex();
+            idIndexBuilt = true;
+        }
+        if (identifier.isCompact()) {
+            long mostSignificantBits = identifier.getMostSignificantBits();
+            long leastSignificantBits = identifier.getLeastSignificantBits();
+            return idIndex.find(identifierHash(identifier), idRef -> {
+                long position = idPosition(idRef);
+                return idTable.getByte(position + Long.BYTES + Long.BYTES) == COMPACT_ID
+                        && idTable.getLong(position) == mostSignificantBits
+                        && idTable.getLong(position + Long.BYTES) == leastSignificantBits;
+            });
+        }
+        String id = identifier.toString();
+        return idIndex.find(identifierHash(identifier), idRef -> {
+            long position = idPosition(idRef);
+            return idTable.getByte(position + Long.BYTES + Long.BYTES) == STRING_ID
+                    && readString(idTable.getLong(position)).equals(id);
+        });
+    }
+
+    private void rebuildIdIndex() throws IOException {
+        idIndex.clear(idCount * 2L);
+        for (int idRef = 0; idRef < idCount; idRef++) {
+            long position = idPosition(idRef);
+            if (idTable.getByte(position + Long.BYTES + Long.BYTES) == COMPACT_ID) {
+                idIndex.add(MappedHashIndex.hash(idTable.getLong(position) ^ idTable.getLong(position + Long.BYTES)), idRef);
+            } else {
+                idIndex.add(MappedHashIndex.hash(readString(idTable.getLong(position)).hashCode()), idRef);
+            }
+        }
+    }
+
+    private Identifier readIdentifier(final int idRef) {
+        long position = idPosition(idRef);
+        if (idTable.getByte(position + Long.BYTES + Long.BYTES) == COMPACT_ID) {
+            return Identifier.of(idTable.getLong(position), idTable.getLong(position + Long.BYTES));
+        }
+        return Identifier.of(readString(idTable.getLong(position)));
+    }
+
+    private BigDecimal readAmount(final int slot) {
+        long amount = amounts.getLong(columnPosition(slot, Long.BYTES));
+        byte scale = scales.getByte(slot);
+        if (scale == POOLED_AMOUNT_SCALE) {
+            return new BigDecimal(readString(amount));
+        }
+        return BigDecimal.valueOf(amount, scale);
+    }
+
+    private void writeAmount(final int slot, final BigDecimal value) throws IOException {
+        long position = columnPosition(slot, Long.BYTES);
+        int scale = value.scale();
+        if (scale > Byte.MIN_VALUE && scale <= Byte.MAX_VALUE && value.unscaledValue().bitLength() < Long.SIZE) {
+            amounts.putLong(position, value.unscaledValue().longValue());
+            scales.putByte(slot, (byte) scale);
+        } else {
+            amounts.putLong(position, writeString(value.toString()));
+            scales.putByte(slot, POOLED_AMOUNT_SCALE);
+        }
+    }
+
+    private TransactionSubject readSubject(final int slot) {
+        return SUBJECTS[subjects.getByte(slot)];
+    }
+
+    private Instant readPostedAt(final int slot) {
+        return Instant.ofEpochSecond(postingSeconds.getLong(columnPosition(slot, Long.BYTES)),
+                postingNanos.getInt(columnPosition(slot, Integer.BYTES)));
+    }
+
+    private int partyIndex(final TransactionParty party) throws IOException {
+        Integer index = partyIndexes.get(party.getIdentifier());
+        if (index != null) {
+            return index;
+        }
+
+        long position = HEADER_SIZE + (long) parties.size() * PARTY_RECORD_SIZE;
+        partyTable.ensureCapacity(position + PARTY_RECORD_SIZE);
+        partyTable.putLong(position, writeString(party.getName()));
+        partyTable.putInt(position + Long.BYTES, internIdentifier(party.getIdentifier()));
+        partyTable.putInt(position + Long.BYTES + Integer.BYTES, party.getAge());
+        partyTable.putByte(position + Long.BYTES + Long.BYTES, (byte) party.getType().ordinal());
+
+        index = parties.size();
+        parties.add(party);
+        partyIndexes.put(party.getIdentifier(), index);
+        partyTable.putLong(0, parties.size());
+        return index;
+    }
+
+    private long writeString(final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int recordSize = Integer.BYTES + bytes.length;
+        if (recordSize > MappedFile.SEGMENT_SIZE) {
+            throw new IllegalArgumentException("String is too large for the store");
+        }
+
+        long position = stringsSize;
+        if (MappedFile.remainingInSegment(position) < recordSize) {
+            position += MappedFile.remainingInSegment(position);
+        }
+        strings.ensureCapacity(position + recordSize);
+        strings.putInt(position, bytes.length);
+        strings.putBytes(position + Integer.BYTES, bytes);
+
+        stringsSize = position + recordSize;
+        strings.putLong(0, stringsSize);
+        return position;
+    }
+
+    private String readString(final long position) {
+        int length = strings.getInt(position);
+        return new String(strings.getBytes(position + Integer.BYTES, length), StandardCharsets.UTF_8);
+    }
+
+    private static int identifierHash(final Identifier identifier) {
+        if (identifier.isCompact()) {
+            return MappedHashIndex.hash(identifier.getMostSignificantBits() ^ identifier.getLeastSignificantBits());
+        }
+        return MappedHashIndex.hash(identifier.toString().hashCode());
+    }
+
+    private static int rowHash(final int accountIndex, final int idRef) {
+        return MappedHashIndex.hash((long) accountIndex << Integer.SIZE | idRef);
+    }
+
+    private static long idPosition(final int idRef) {
+        return HEADER_SIZE + (long) idRef * ID_RECORD_SIZE;
+    }
+
+    private static long accountPosition(final int accountIndex) {
+        return HEADER_SIZE + (long) accountIndex * ACCOUNT_RECORD_SIZE;
+    }
+
+    private static long blockPosition(final int block) {
+        return HEADER_SIZE + (long) block * Integer.BYTES;
+    }
+
+    private static long columnPosition(final long slot, final int width) {
+        return slot * width;
+    }
+
+    /**
+     * Transactions of an Account: its size and the blocks of rows it owns, in order.
+     * Only the block numbers are kept on heap, one int for every {@value #BLOCK_ROWS} rows.
+     */
+    private final class AccountTransactions extends AbstractList<Transaction> implements TransactionStorage, RandomAccess {
+
+        private final int accountIndex;
+        private int[] blocks;
+        private int ownedBlocks;
+        private int size;
+
+        private AccountTransactions(final int accountIndex, final int size) {
+            this.accountIndex = accountIndex;
+            this.blocks = new int[1 + (size >>> BLOCK_SHIFT)];
+            this.size = size;
+        }
+
+        /**
+         * Returns the Transaction at the given position, building it from the columns.
+         *
+         * @param index Position of the Transaction
+         *
+         * @return Transaction stored at the position
+         *
+         * @throws IndexOutOfBoundsException if the index is not between 0 and size - 1
+         * @throws IllegalStateException if the store is closed
+         */
+        @Override
+        public Transaction get(final int index) {
+            synchronized (MappedTransactionStore.this) {
+                checkOpen();
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return readTransaction(slot(index));
+            }
+        }
+
+        /**
+         * Returns the number of Transactions of the account.
+         *
+         * @return int representing the number of Transactions
+         */
+        @Override
+        public int size() {
+            synchronized (MappedTransactionStore.this) {
+                return size;
+            }
+        }
+
+        /**
+         * Appends a Transaction to the end of the account transactions.
+         *
+         * @param transaction Transaction to be appended
+         *
+         * @return always True
+         *
+         * @throws NullPointerException if transaction is null
+         * @throws IllegalStateException if the store is closed or full
+         * @throws UncheckedIOException if the files cannot be grown
+         */
+        @Override
+        public boolean add(final Transaction transaction) {
+            Objects.requireNonNull(transaction, "transaction cannot be null");
+            synchronized (MappedTransactionStore.this) {
+                checkOpen();
+                if (size == Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Store is full");
+                }
+                try {
+                    writeTransaction(this, transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                modCount++;
+            }
+            return true;
+        }
+
+        /**
+         * Checks if a Transaction with the given id was appended to the account, using the row index of the store.
+         *
+         * @param transactionId Identifier of the Transaction
+         *
+         * @return True if the transaction is stored or False if not.
+         *
+         * @throws IllegalStateException if the store is closed
+         * @throws UncheckedIOException if the index cannot be grown
+         */
+        @Override
+        public boolean containsTransactionId(final Identifier transactionId) {
+            Objects.requireNonNull(transactionId, "transactionId cannot be null");
+            synchronized (MappedTransactionStore.this) {
+                checkOpen();
+                try {
+                    return containsRow(accountIndex, transactionId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Calls the consumer with the value, subject and posting instant of each Transaction of the account,
+         * reading them from the columns.
+         *
+         * @param consumer PostingConsumer to be called
+         *
+         * @throws IllegalStateException if the store is closed
+         */
+        @Override
+        public void forEachPosting(final PostingConsumer consumer) {
+            Objects.requireNonNull(consumer, "consumer cannot be null");
+            synchronized (MappedTransactionStore.this) {
+                checkOpen();
+                for (int row = 0; row < size; row++) {
+                    int slot = slot(row);
+                    consumer.accept(readAmount(slot), readSubject(slot), readPostedAt(slot));
+                }
+            }
+        }
+
+        private void addBlock(final int block) {
+            if (ownedBlocks == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            blocks[ownedBlocks++] = block;
+        }
+
+        private int slot(final int row) {
+            return blocks[row >>> BLOCK_SHIFT] << BLOCK_SHIFT | row & BLOCK_MASK;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package br.com.exercise.apam.wire;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+/**
+ * Binary encoding of Transactions, written to and read from ByteBuffers.
+ *
+ * A transaction is encoded as:
+ * 1. id: byte 1 followed by the two longs of a compact Identifier, written without building its String,
+ * or byte 0 followed by the id as a string
+ * 2. description: varint length followed by the UTF-8 bytes
+ * 3. value: zigzag varint scale, followed by a zigzag varlong unscaled value or, if it does not fit in a long,
+ * a varint length followed by the two's complement bytes of the unscaled value
+ * 4. subject: byte ordinal of the TransactionSubject
+ * 5. party: byte ordinal of the TransactionPartyType followed by the party id, encoded like the transaction id
+ * 6. posting instant: zigzag varlong epoch seconds followed by a varint of the nanoseconds
+ *
+ * Strings are encoded and decoded char by char straight from and to the buffer, without intermediate byte arrays.
+ * A batch is framed as [int payload length][int count][transactions], so many transactions are decoded from one buffer
+ * and frames can be written back to back in a stream.
+ */
+public final class TransactionCodec {
+
+    /**
+     * Size of the header of a batch frame.
+     */
+    public static final int FRAME_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    private static final TransactionSubject[] SUBJECTS = TransactionSubject.values();
+    private static final TransactionPartyType[] PARTY_TYPES = TransactionPartyType.values();
+    private static final byte LONG_UNSCALED_VALUE = 0;
+    private static final byte BIG_UNSCALED_VALUE = 1;
+    private static final byte STRING_ID = 0;
+    private static final byte COMPACT_ID = 1;
+
+    private TransactionCodec() {
+    }
+
+    /**
+     * Returns the number of bytes a Transaction takes when encoded.
+     *
+     * @param transaction Transaction to be measured
+     *
+     * @return int representing the encoded size
+     *
+     * @throws NullPointerException if transaction is null
+     */
+    public static int encodedSize(final Transaction transaction) {
+        Objects.requireNonNull(transaction, "transaction cannot be null");
+
+        BigDecimal value = transaction.getValue();
+        int size = identifierSize(transaction.getIdentifier()) + stringSize(transaction.getDescription());
+        size += varintSize(zigzag(value.scale())) + 1;
+        if (value.unscaledValue().bitLength() < Long.SIZE) {
+            size += varintSize(zigzag(value.unscaledValue().longValue()));
+        } else {
+            int length = value.unscaledValue().bitLength() / Byte.SIZE + 1;
+            size += varintSize(length) + length;
+        }
+        size += 1 + 1 + identifierSize(transaction.getParty().getIdentifier());
+        return size + varintSize(zigzag(transaction.getPostedAt().getEpochSecond())) + varintSize(transaction.getPostedAt().getNano());
+    }
+
+    /**
+     * Encodes a Transaction at the current position of the buffer, advancing it.
+     *
+     * @param transaction Transaction to be encoded
+     * @param target ByteBuffer that receives the encoded transaction
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws java.nio.BufferOverflowException if the buffer does not have {@link #encodedSize(Transaction)} bytes remaining
+     */
+    public static void encode(final Transaction transaction, final ByteBuffer target) {
+        Objects.requireNonNull(transaction, "transaction cannot be null");
+        Objects.requireNonNull(target, "target cannot be null");
+
+        writeIdentifier(target, transaction.getIdentifier());
+        writeString(target, transaction.getDescription());
+
+        BigDecimal value = transaction.getValue();
+        writeVarlong(target, zigzag(value.scale()));
+        BigInteger unscaledValue = value.unscaledValue();
+        if (unscaledValue.bitLength() < Long.SIZE) {
+            target.put(LONG_UNSCALED_VALUE);
+            writeVarlong(target, zigzag(unscaledValue.longValue()));
+        } else {
+            byte[] bytes = unscaledValue.toByteArray();
+            target.put(BIG_UNSCALED_VALUE);
+            writeVarlong(target, bytes.length);
+            target.put(bytes);
+        }
+
+        target.put((byte) transaction.getSubject().ordinal());
+        target.put((byte) transaction.getParty().getType().ordinal());
+        writeIdentifier(target, transaction.getParty().getIdentifier());
+        writeVarlong(target, zigzag(transaction.getPostedAt().getEpochSecond()));
+        writeVarlong(target, transaction.getPostedAt().getNano());
+    }
+
+    /**
+     * Decodes a Transaction from the current position of the buffer, advancing it.
+     * Ids are decoded straight to Identifiers and the party is looked up by its Identifier, it must have the
+     * encoded TransactionPartyType.
+     *
+     * @param source ByteBuffer with the encoded transaction
+     * @param parties Function that returns the TransactionParty of an Identifier or null if it is unknown
+     *
+     * @return Transaction decoded from the buffer
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the encoded data is not valid, the party is unknown or has another type,
+     * or the transaction violates the Transaction rules
+     * @throws BufferUnderflowException if the buffer ends before the transaction
+     */
+    public static Transaction decode(final ByteBuffer source, final Function<Identifier, TransactionParty> parties) {
+        Objects.requireNonNull(source, "source cannot be null");
+        Objects.requireNonNull(parties, "parties cannot be null");
+
+        Identifier id = readIdentifier(source);
+        String description = readString(source);
+
+        int scale = (int) unzigzag(readVarlong(source));
+        BigDecimal value;
+        byte unscaledValueType = source.get();
+        if (unscaledValueType == LONG_UNSCALED_VALUE) {
+            value = BigDecimal.valueOf(unzigzag(readVarlong(source)), scale);
+        } else if (unscaledValueType == BIG_UNSCALED_VALUE) {
+            byte[] bytes = new byte[readLength(source)];
+            source.get(bytes);
+            value = new BigDecimal(new BigInteger(bytes), scale);
+        } else {
+            throw new IllegalArgumentException("Invalid value encoding " + unscaledValueType);
+        }
+
+        TransactionSubject subject = SUBJECTS[readOrdinal(source, SUBJECTS.length)];
+        TransactionPartyType partyType = PARTY_TYPES[readOrdinal(source, PARTY_TYPES.length)];
+        Identifier partyId = readIdentifier(source);
+        TransactionParty party = parties.apply(partyId);
+        if (party == null) {
+            throw new IllegalArgumentException("TransactionParty " + partyId + " is not registered");
+        }
+        if (party.getType() != partyType) {
+            throw new IllegalArgumentException("TransactionParty " + partyId + " is not of type " + partyType);
+        }
+
+        long epochSecond = unzigzag(readVarlong(source));
+        Instant postedAt;
+        try {
+            postedAt = Instant.ofEpochSecond(epochSecond, readVarlong(source));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid posting instant", e);
+        }
+
+        return new Transaction(id, description, value, subject, party, postedAt);
+    }
+
+    /**
+     * Returns the number of bytes a batch of Transactions takes when framed, including the frame header.
+     *
+     * @param transactions Transactions to be measured
+     *
+     * @return int representing the framed size
+     *
+     * @throws NullPointerException if the collection or any of its transactions is null
+     */
+    public static int encodedBatchSize(final Collection<Transaction> transactions) {
+        Objects.requireNonNull(transactions, "transactions cannot be null");
+
+        int size = FRAME_HEADER_SIZE;
+        for (Transaction transaction : transactions) {
+            size += encodedSize(transaction);
+        }
+        return size;
+    }
+
+    /**
+     * Encodes a batch of Transactions as one frame at the current position of the buffer, advancing it.
+     *
+     * @param transactions Transactions to be encoded, in order
+     * @param target ByteBuffer that receives the frame
+     *
+     * @throws NullPointerException if any of the parameters or transactions are null
+     * @throws java.nio.BufferOverflowException if the buffer does not have {@link #encodedBatchSize(Collection)} bytes remaining
+     */
+    public static void encodeBatch(final Collection<Transaction> transactions, final ByteBuffer target) {
+        Objects.requireNonNull(transactions, "transactions cannot be null");
+        Objects.requireNonNull(target, "target cannot be null");
+
+        int headerPosition = target.position();
+        target.position(headerPosition + FRAME_HEADER_SIZE);
+        int count = 0;
+        for (Transaction transaction : transactions) {
+            encode(transaction, target);
+            count++;
+        }
+        target.putInt(headerPosition, target.position() - headerPosition - FRAME_HEADER_SIZE);
+        target.putInt(headerPosition + Integer.BYTES, count);
+    }
+
+    /**
+     * Checks if the buffer has a complete frame at its current position.
+     *
+     * @param source ByteBuffer with the frames
+     *
+     * @return True if a whole frame can be decoded or False if more bytes are needed.
+     *
+     * @throws NullPointerException if source is null
+     */
+    public static boolean hasCompleteFrame(final ByteBuffer source) {
+        Objects.requireNonNull(source, "source cannot be null");
+
+        return source.remaining() >= FRAME_HEADER_SIZE
+                && source.remaining() - FRAME_HEADER_SIZE >= source.getInt(source.position());
+    }
+
+    /**
+     * Decodes a frame of Transactions from the current position of the buffer, advancing it to the next frame.
+     *
+     * @param source ByteBuffer with the frame
+     * @param parties Function that returns the TransactionParty of an Identifier or null if it is unknown
+     *
+     * @return List of Transactions of the frame, in order
+     *
+     * @throws NullPointerException if any of the parameters are null
+     * @throws IllegalArgumentException if the frame is not valid or any of its transactions can not be decoded
+     * @throws BufferUnderflowException if the buffer does not have a complete frame
+     */
+    public static List<Transaction> decodeBatch(final ByteBuffer source, final Function<Identifier, TransactionParty> parties) {
+        Objects.requireNonNull(source, "source cannot be null");
+        Objects.requireNonNull(parties, "parties cannot be null");
+
+        if (!hasCompleteFrame(source)) {
+            throw new BufferUnderflowException();
+        }
+        int length = source.getInt();
+        int count = source.getInt();
+        if (length < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid frame header");
+        }
+
+        int end = source.position() + length;
+        List<Transaction> transactions = new ArrayList<>(Math.min(count, length));
+        for (int i = 0; i < count; i++) {
+            transactions.add(decode(source, parties));
+            if (source.position() > end) {
+                throw new IllegalArgumentException("Transactions exceed the frame length");
+            }
+        }
+        if (source.position() != end) {
+            throw new IllegalArgumentException("Frame length does not match its transactions");
+        }
+        return transactions;
+    }
+
+    private static int readOrdinal(final ByteBuffer source, final int values) {
+        int ordinal = source.get() & 0xFF;
+        if (ordinal >= values) {
+            throw new IllegalArgumentException("Invalid ordinal " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static int readLength(final ByteBuffer source) {
+        long length = readVarlong(source);
+        if (length < 0 || length > source.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        return (int) length;
+    }
+
+    private static int identifierSize(final Identifier id) {
+        return 1 + (id.isCompact() ? 2 * Long.BYTES : stringSize(id.toString()));
+    }
+
+    private static void writeIdentifier(final ByteBuffer target, final Identifier id) {
+        if (id.isCompact()) {
+            target.put(COMPACT_ID).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        } else {
+            target.put(STRING_ID);
+            writeString(target, id.toString());
+        }
+    }
+
+    private static Identifier readIdentifier(final ByteBuffer source) {
+        byte encoding = source.get();
+        if (encoding == COMPACT_ID) {
+            return Identifier.of(source.getLong(), source.getLong());
+        }
+        if (encoding != STRING_ID) {
+            throw new IllegalArgumentException("Invalid id encoding " + encoding);
+        }
+        return Identifier.of(readString(source));
+    }
+
+    private static int stringSize(final String value) {
+        int length = utf8Length(value);
+        return varintSize(length) + length;
+    }
+
+    private static int utf8Length(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void writeString(final ByteBuffer target, final String value) {
+        writeVarlong(target, utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | c >> 6));
+                target.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put((byte) (0xF0 | codePoint >> 18));
+                target.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                target.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                target.put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                target.put((byte) (0xE0 | c >> 12));
+                target.put((byte) (0x80 | c >> 6 & 0x3F));
+                target.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static String readString(final ByteBuffer source) {
+        int length = readLength(source);
+        int end = source.position() + length;
+        char[] chars = new char[length];
+        int count = 0;
+        while (source.position() < end) {
+            int b = source.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | continuation(source, end));
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | continuation(source, end) << 6 | continuation(source, end));
+            } else if ((b & 0xF8) == 0xF0) {
+                int codePoint = (b & 0x07) << 18 | continuation(source, end) << 12 | continuation(source, end) << 6
+                        | continuation(source, end);
+                if (!Character.isSupplementaryCodePoint(codePoint)) {
+                    throw new IllegalArgumentException("Invalid UTF-8 string");
+                }
+                chars[count++] = Character.highSurrogate(codePoint);
+                chars[count++] = Character.lowSurrogate(codePoint);
+            } else {
+                throw new IllegalArgumentException("Invalid UTF-8 string");
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private static int continuation(final ByteBuffer source, final int end) {
+        if (source.position() >= end) {
+            throw new IllegalArgumentException("Invalid UTF-8 string");
+        }
+        int b = source.get() & 0xFF;
+        if ((b & 0xC0) != 0x80) {
+            throw new IllegalArgumentException("Invalid UTF-8 string");
+        }
+        return b & 0x3F;
+    }
+
+    private static void writeVarlong(final ByteBuffer target, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            target.put((byte) (remaining & 0x7F | 0x80));
+            remaining >>>= 7;
+        }
+        target.put((byte) remaining);
+    }
+
+    private static long readVarlong(final ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = source.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint");
+    }
+
+    private static int varintSize(final long value) {
+        int size = 1;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    private static long zigzag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
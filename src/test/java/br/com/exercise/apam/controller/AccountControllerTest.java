@@ -4,18 +4,33 @@ import static br.com.exercise.apam.dataprovider.CommonsProvider.provideId;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
 import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
 import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
 import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
 import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
 import br.com.exercise.apam.model.TransactionParty;
 import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
 
 @CamelCaseDisplayNameGenerator
 class AccountControllerTest {
@@ -45,6 +60,65 @@ class AccountControllerTest {
         assertEquals(CHILD_ACCOUNT, accountController.getAccounts().get(0));
     }
 
+    @Test
+    void shouldReturnAccountsViewWithoutCopying() {
+        final Collection<Account> view = accountController.getAccountsView();
+        accountController.addAccount(CHILD, CHILD_ACCOUNT);
+
+        assertSame(view, accountController.getAccountsView());
+        assertEquals(1, view.size());
+        assertSame(CHILD_ACCOUNT, view.iterator().next());
+        assertThrows(UnsupportedOperationException.class, view::clear);
+    }
+
+    @Test
+    void shouldIterateAccountsViewWhileAccountsAreAdded() {
+        for (int i = 0; i < 10; i++) {
+            accountController.addAccount(TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                    AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        }
+
+        int iterated = 0;
+        for (Account ignored : accountController.getAccountsView()) {
+            if (iterated < 10) {
+                accountController.addAccount(TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                        AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+            }
+            iterated++;
+        }
+
+        assertTrue(iterated >= 10 && iterated <= 20);
+        assertEquals(20, accountController.getAccountsView().size());
+    }
+
+    @Test
+    void shouldStreamAccountsViewInParallel() {
+        for (int i = 0; i < 100; i++) {
+            accountController.addAccount(TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                    AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        }
+
+        assertEquals(100, accountController.getAccountsView().parallelStream().distinct().count());
+    }
+
+    @Test
+    void shouldReadAccountsInPages() {
+        for (int i = 0; i < 25; i++) {
+            accountController.addAccount(TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                    AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        }
+
+        final PageCursor<Account> cursor = accountController.openAccountCursor(10);
+        final List<Integer> pageSizes = new ArrayList<>();
+        while (cursor.hasNext()) {
+            pageSizes.add(cursor.nextPage().size());
+        }
+
+        assertEquals(Arrays.asList(10, 10, 5), pageSizes);
+        assertThrows(NoSuchElementException.class, cursor::nextPage);
+        assertThrows(IllegalArgumentException.class, () -> accountController.openAccountCursor(0));
+    }
+
     @Test
     void shouldReturnAccountForTransactionParty() {
         accountController.addAccount(CHILD, CHILD_ACCOUNT);
@@ -92,4 +166,123 @@ class AccountControllerTest {
         assertEquals(1, accountController.getAccounts().size());
         assertEquals(CHILD_ACCOUNT, accountController.getAccounts().get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAddTransactionToSourceAccount() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+        accountController.addAccount(donor, account);
+
+        accountController.addTransaction(donor, transaction);
+
+        assertEquals(1, account.getTransactions().size());
+        assertEquals(transaction.getValue(), account.getBalance());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAddingTransactionForSourceWithoutAccount() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> accountController.addTransaction(donor, transaction));
+
+        assertEquals("TransactionParty does not have an Account", exception.getMessage());
+    }
+
+    @Test
+    void shouldAddTransactionsGroupedBySource() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        final Account donorAccount = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Account companyAccount = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        accountController.addAccount(donor, donorAccount);
+        accountController.addAccount(company, companyAccount);
+
+        final Transaction donation = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+        final Map<TransactionParty, List<Transaction>> transactions = new HashMap<>();
+        transactions.put(donor, Arrays.asList(donation, donation,
+                TransactionDataProvider.provide(TransactionSubject.DONATION, donor)));
+        transactions.put(company, Collections.singletonList(TransactionDataProvider.provide(TransactionSubject.DONATION, company)));
+
+        assertEquals(3, accountController.addTransactions(transactions));
+        assertEquals(2, donorAccount.getTransactions().size());
+        assertEquals(1, companyAccount.getTransactions().size());
+    }
+
+    @Test
+    void shouldAddTransactionsOfSourcesSharingAnAccount() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final TransactionParty otherDonor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Account sharedAccount = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        accountController.addAccount(donor, sharedAccount);
+        accountController.addAccount(otherDonor, sharedAccount);
+
+        final Map<TransactionParty, List<Transaction>> transactions = new HashMap<>();
+        transactions.put(donor, Arrays.asList(TransactionDataProvider.provide(TransactionSubject.DONATION, donor),
+                TransactionDataProvider.provide(TransactionSubject.DONATION, donor)));
+        transactions.put(otherDonor, Collections.singletonList(TransactionDataProvider.provide(TransactionSubject.DONATION, otherDonor)));
+
+        assertEquals(3, accountController.addTransactions(transactions));
+        assertEquals(3, sharedAccount.getTransactions().size());
+    }
+
+    @Test
+    void shouldNotAddAnyTransactionWhenBatchHasInvalidTransaction() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        accountController.addAccount(donor, account);
+
+        final List<Transaction> transactions = Arrays.asList(
+                TransactionDataProvider.provide(TransactionSubject.DONATION, donor),
+                TransactionDataProvider.provide(TransactionSubject.CHILD_PAYMENT,
+                        TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL)));
+
+        assertThrows(IllegalArgumentException.class, () -> accountController.addTransactions(donor, transactions));
+        assertTrue(account.getTransactions().isEmpty());
+    }
+
+    @Test
+    void shouldNotifyAccountListeners() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+        final List<Object> events = new ArrayList<>();
+        accountController.addAccountListener(new AccountListener() {
+            @Override
+            public void onAccountAdded(final TransactionParty owner, final Account addedAccount) {
+                events.add(owner);
+                events.add(addedAccount);
+            }
+
+            @Override
+            public void onTransactionAdded(final Account changedAccount, final Transaction addedTransaction) {
+                events.add(addedTransaction);
+            }
+        });
+
+        accountController.addAccount(donor, account);
+        accountController.addAccount(donor, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        accountController.addTransaction(donor, transaction);
+
+        assertEquals(Arrays.asList(donor, account, transaction), events);
+    }
+
+    @Test
+    void shouldNotifyEveryListenerWhenOneFails() {
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+        final List<Transaction> notified = new ArrayList<>();
+        accountController.addAccountListener((changedAccount, addedTransaction) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        accountController.addAccountListener((changedAccount, addedTransaction) -> notified.add(addedTransaction));
+        accountController.addAccount(donor, account);
+
+        assertThrows(IllegalStateException.class, () -> accountController.addTransaction(donor, transaction));
+        assertEquals(Collections.singletonList(transaction), notified);
+        assertEquals(transaction.getValue(), account.getBalance());
+    }
+}
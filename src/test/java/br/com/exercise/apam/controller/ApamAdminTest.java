@@ -1,12 +1,26 @@
 package br.com.exercise.apam.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +31,7 @@ import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
 import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
 import br.com.exercise.apam.model.Account;
 import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Person;
 import br.com.exercise.apam.model.Transaction;
 import br.com.exercise.apam.model.TransactionParty;
 import br.com.exercise.apam.model.TransactionPartyType;
@@ -101,6 +116,24 @@ class ApamAdminTest {
         assertEquals(FRANISCO, children.get(0));
     }
 
+    @Test
+    void shouldReturnReadOnlyChildrenView() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+
+        final List<TransactionParty> children = apamAdmin.getCityHallChildren(PITANGUI);
+        final Iterator<TransactionParty> iterator = children.iterator();
+        apamAdmin.addChild(PITANGUI, ISIS);
+
+        assertSame(children, apamAdmin.getCityHallChildren(PITANGUI));
+        assertEquals(2, children.size());
+        assertEquals(FRANISCO, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(UnsupportedOperationException.class, () -> children.add(ISIS));
+    }
+
     @Test
     void shouldThrowExceptionWhenAddingNullTransactionParty() {
         assertThrows(NullPointerException.class, () -> apamAdmin.addTransactionParty(null));
@@ -194,6 +227,27 @@ class ApamAdminTest {
         assertEquals(ISIS, apamAdmin.getCityHallChildren(PITANGUI).get(1));
     }
 
+    @Test
+    void shouldReturnCityHallOfChild() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(MARTINHO_CAMPOS);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+
+        apamAdmin.addChild(MARTINHO_CAMPOS, FRANISCO);
+
+        assertEquals(MARTINHO_CAMPOS, apamAdmin.getCityHallOf(FRANISCO));
+        assertNull(apamAdmin.getCityHallOf(ISIS));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGettingCityHallOfNonChild() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> apamAdmin.getCityHallOf(ROBSON));
+
+        assertEquals("Child must be of type CHILD", exception.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionWhenAddingTransactionPartyWithNullSource() {
         assertThrows(NullPointerException.class, () -> apamAdmin.addTransaction(null, DONATION));
@@ -260,4 +314,168 @@ class ApamAdminTest {
         assertNotNull(payment);
         assertEquals(expectedCost, payment);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldUpdatePaymentWhenChildAccountReceivesTransaction() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(LUCIANO_CALCADOS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+        final BigDecimal paymentWithoutAccount = apamAdmin.calculateCityHallPayment(PITANGUI);
+
+        accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+        apamAdmin.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, LUCIANO_CALCADOS));
+
+        final BigDecimal expectedCost = new ChildCostCalculator(accountController).calculateMonthlyCost(FRANISCO);
+        assertEquals(expectedCost, apamAdmin.calculateCityHallPayment(PITANGUI));
+        assertTrue(apamAdmin.calculateCityHallPayment(PITANGUI).compareTo(paymentWithoutAccount) <= 0);
+    }
+
+    @Test
+    void shouldCalculateChildCostOnReadInsteadOfOnPosting() {
+        final ChildCostCalculator childCostCalculator = new ChildCostCalculator(accountController);
+        final ApamAdmin admin = new ApamAdmin(accountController, childCostCalculator);
+        admin.addTransactionParty(PITANGUI);
+        admin.addTransactionParty(FRANISCO);
+        admin.addTransactionParty(LUCIANO_CALCADOS);
+        admin.addChild(PITANGUI, FRANISCO);
+        accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+
+        for (int i = 0; i < 5; i++) {
+            admin.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, LUCIANO_CALCADOS));
+        }
+        assertEquals(0, childCostCalculator.getCacheMisses());
+
+        final BigDecimal payment = admin.calculateCityHallPayment(PITANGUI);
+
+        assertEquals(1, childCostCalculator.getCacheMisses());
+        assertEquals(new ChildCostCalculator(accountController).calculateMonthlyCost(FRANISCO), payment);
+    }
+
+    @Test
+    void shouldKeepPaymentsOfCityHallsApart() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(MARTINHO_CAMPOS);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+        apamAdmin.addTransactionParty(LUCIANO_CALCADOS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+        apamAdmin.addChild(MARTINHO_CAMPOS, ISIS);
+        final BigDecimal martinhoCamposPayment = apamAdmin.calculateCityHallPayment(MARTINHO_CAMPOS);
+
+        accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+        for (int i = 0; i < 5; i++) {
+            apamAdmin.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, LUCIANO_CALCADOS));
+        }
+
+        final ChildCostCalculator childCostCalculator = new ChildCostCalculator(accountController);
+        assertEquals(childCostCalculator.calculateMonthlyCost(FRANISCO), apamAdmin.calculateCityHallPayment(PITANGUI));
+        assertEquals(martinhoCamposPayment, apamAdmin.calculateCityHallPayment(MARTINHO_CAMPOS));
+        assertEquals(childCostCalculator.calculateMonthlyCost(ISIS), martinhoCamposPayment);
+    }
+
+    @Test
+    void shouldCalculatePaymentForAccountsAddedBeforeApamAdmin() {
+        final AccountController existingAccounts = new AccountController();
+        final Account franiscoAccount = AccountDataProvider.provide(AccountType.CHILD_ACCOUNT);
+        existingAccounts.addAccount(FRANISCO, franiscoAccount);
+        final ApamAdmin admin = new ApamAdmin(existingAccounts);
+        admin.addTransactionParty(PITANGUI);
+        admin.addTransactionParty(FRANISCO);
+        admin.addTransactionParty(LUCIANO_CALCADOS);
+        admin.addChild(PITANGUI, FRANISCO);
+
+        admin.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, LUCIANO_CALCADOS));
+
+        assertEquals(new ChildCostCalculator(existingAccounts).calculateMonthlyCost(FRANISCO), admin.calculateCityHallPayment(PITANGUI));
+    }
+
+    @Test
+    void shouldStopCalculatingPaymentsWhenClosed() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+        apamAdmin.addTransactionParty(LUCIANO_CALCADOS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+        accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+
+        apamAdmin.close();
+        apamAdmin.close();
+        accountController.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, LUCIANO_CALCADOS));
+
+        assertThrows(IllegalStateException.class, () -> apamAdmin.calculateCityHallPayment(PITANGUI));
+        assertThrows(IllegalStateException.class, () -> apamAdmin.addChild(PITANGUI, ISIS));
+        assertNull(apamAdmin.getCityHallOf(ISIS));
+
+        final ApamAdmin admin = new ApamAdmin(accountController);
+        admin.addTransactionParty(PITANGUI);
+        admin.addTransactionParty(FRANISCO);
+        admin.addChild(PITANGUI, FRANISCO);
+        assertEquals(new ChildCostCalculator(accountController).calculateMonthlyCost(FRANISCO), admin.calculateCityHallPayment(PITANGUI));
+    }
+
+    @Test
+    void shouldUpdatePaymentWhenNewTariffBecomesEffective() {
+        final Map<LocalDate, TariffTable> tariffs = new HashMap<>();
+        tariffs.put(LocalDate.of(2024, 1, 1), TariffTable.DEFAULT);
+        tariffs.put(LocalDate.of(2025, 1, 1), new TariffTable(300_00, 0, 0));
+        final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-06-01T00:00:00Z"));
+        final Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        final ApamAdmin admin = new ApamAdmin(accountController,
+                new ChildCostCalculator(accountController, new TariffSchedule(tariffs), clock));
+        final TransactionParty child = new Person(FRANISCO.getId(), FRANISCO.getName(), 10, TransactionPartyType.CHILD);
+        admin.addTransactionParty(PITANGUI);
+        admin.addTransactionParty(child);
+        admin.addChild(PITANGUI, child);
+
+        assertEquals(new BigDecimal("1500.00"), admin.calculateCityHallPayment(PITANGUI));
+
+        now.set(Instant.parse("2025-01-01T00:00:00Z"));
+
+        assertEquals(new BigDecimal("3000.00"), admin.calculateCityHallPayment(PITANGUI));
+    }
+
+    @Test
+    void shouldCalculateAllCityHallPaymentsInParallel() {
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(MARTINHO_CAMPOS);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+        apamAdmin.addChild(MARTINHO_CAMPOS, ISIS);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Map<TransactionParty, BigDecimal> payments = apamAdmin.calculateAllCityHallPayments(executor);
+
+            assertEquals(2, payments.size());
+            assertEquals(apamAdmin.calculateCityHallPayment(PITANGUI), payments.get(PITANGUI));
+            assertEquals(apamAdmin.calculateCityHallPayment(MARTINHO_CAMPOS), payments.get(MARTINHO_CAMPOS));
+            assertEquals(PITANGUI, payments.keySet().iterator().next());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReturnEmptyPaymentsWhenThereAreNoCityHalls() {
+        apamAdmin.addTransactionParty(FRANISCO);
+
+        assertTrue(apamAdmin.calculateAllCityHallPayments().isEmpty());
+    }
+}
@@ -2,17 +2,28 @@ package br.com.exercise.apam.controller;
 
 import static br.com.exercise.apam.dataprovider.CommonsProvider.provideId;
 import static br.com.exercise.apam.dataprovider.CommonsProvider.provideName;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
 import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
 import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
 import br.com.exercise.apam.model.Account;
@@ -20,11 +31,11 @@ import br.com.exercise.apam.model.AccountType;
 import br.com.exercise.apam.model.Person;
 import br.com.exercise.apam.model.TransactionParty;
 import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
 
 @CamelCaseDisplayNameGenerator
 class ChildCostCalculatorTest {
 
-    private static final MathContext MATH_CONTEXT = new MathContext(2, RoundingMode.FLOOR);
     private static final Double ACCOUNT_DEDUCTION_PERCENT = 0.10;
 
     private AccountController accountController;
@@ -49,7 +60,7 @@ class ChildCostCalculatorTest {
         final TransactionParty child = buildChild(10);
         final BigDecimal value = childCostCalculator.calculateMonthlyCost(child);
 
-        assertEquals(BigDecimal.valueOf(1500).round(MATH_CONTEXT), value);
+        assertEquals(BigDecimal.valueOf(1500).setScale(2), value);
     }
 
     @Test
@@ -57,7 +68,7 @@ class ChildCostCalculatorTest {
         final TransactionParty child = buildChild(4);
         final BigDecimal value = childCostCalculator.calculateMonthlyCost(child);
 
-        assertEquals(BigDecimal.valueOf(1000).round(MATH_CONTEXT), value);
+        assertEquals(BigDecimal.valueOf(1000).setScale(2), value);
     }
 
     @Test
@@ -68,9 +79,9 @@ class ChildCostCalculatorTest {
         accountController.addAccount(child, account);
         final BigDecimal value = childCostCalculator.calculateMonthlyCost(child);
 
-        final BigDecimal expectedValue = BigDecimal.valueOf(1600)
+        final BigDecimal expectedValue = BigDecimal.valueOf(1650)
                                                    .subtract(account.getBalance().multiply(BigDecimal.valueOf(ACCOUNT_DEDUCTION_PERCENT)))
-                                                   .round(MATH_CONTEXT);
+                                                   .setScale(2, RoundingMode.FLOOR);
         assertEquals(expectedValue, value);
     }
 
@@ -84,10 +95,169 @@ class ChildCostCalculatorTest {
 
         final BigDecimal expectedValue = BigDecimal.valueOf(750)
                                                    .subtract(account.getBalance().multiply(BigDecimal.valueOf(ACCOUNT_DEDUCTION_PERCENT)))
-                                                   .round(MATH_CONTEXT);
+                                                   .setScale(2, RoundingMode.FLOOR);
         assertEquals(expectedValue, value);
     }
 
+    @Test
+    void shouldCalculateCostInCentsMatchingDecimalRules() {
+        final TransactionParty child = buildChild(3);
+        final Account account = AccountDataProvider.provide(AccountType.CHILD_ACCOUNT);
+        accountController.addAccount(child, account);
+        account.addTransaction(TransactionDataProvider.provide(TransactionSubject.PAYMENT,
+                TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY)));
+
+        final BigDecimal baseCost = BigDecimal.valueOf(750);
+        final BigDecimal expectedValue = baseCost
+                .subtract(account.getBalance().multiply(BigDecimal.valueOf(ACCOUNT_DEDUCTION_PERCENT)).min(baseCost))
+                .setScale(2, RoundingMode.FLOOR);
+
+        assertEquals(expectedValue, childCostCalculator.calculateMonthlyCost(child));
+        assertEquals(expectedValue.unscaledValue().longValue(), childCostCalculator.calculateMonthlyCostInCents(child));
+    }
+
+    @Test
+    void shouldReturnCachedCostWhenNothingChanged() {
+        final TransactionParty child = buildChild(7);
+
+        final BigDecimal first = childCostCalculator.calculateMonthlyCost(child);
+        final BigDecimal second = childCostCalculator.calculateMonthlyCost(child);
+
+        assertEquals(first, second);
+        assertEquals(1, childCostCalculator.getCacheMisses());
+        assertEquals(1, childCostCalculator.getCacheHits());
+    }
+
+    @Test
+    void shouldCalculateCostAgainWhenAccountReceivesTransaction() {
+        final TransactionParty child = buildChild(7);
+        final Account account = AccountDataProvider.provide(AccountType.CHILD_ACCOUNT);
+        accountController.addAccount(child, account);
+
+        childCostCalculator.calculateMonthlyCost(child);
+        account.addTransaction(TransactionDataProvider.provide(TransactionSubject.PAYMENT,
+                TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY)));
+        childCostCalculator.calculateMonthlyCost(child);
+
+        assertEquals(2, childCostCalculator.getCacheMisses());
+        assertEquals(0, childCostCalculator.getCacheHits());
+    }
+
+    @Test
+    void shouldCalculateCostAgainWhenAgeChanges() {
+        final TransactionParty child = buildChild(7);
+        final TransactionParty olderChild = new Person(child.getId(), child.getName(), 8, TransactionPartyType.CHILD);
+
+        childCostCalculator.calculateMonthlyCost(child);
+        final BigDecimal value = childCostCalculator.calculateMonthlyCost(olderChild);
+
+        assertEquals(BigDecimal.valueOf(1200).setScale(2), value);
+        assertEquals(2, childCostCalculator.getCacheMisses());
+    }
+
+    @Test
+    void shouldCalculateCostAgainWhenInvalidated() {
+        final TransactionParty child = buildChild(7);
+
+        childCostCalculator.calculateMonthlyCost(child);
+        childCostCalculator.invalidate(child);
+        childCostCalculator.calculateMonthlyCost(child);
+
+        assertEquals(2, childCostCalculator.getCacheMisses());
+    }
+
+    @Test
+    void shouldUseTariffEffectiveOnCurrentDate() {
+        final Map<LocalDate, TariffTable> tariffs = new HashMap<>();
+        tariffs.put(LocalDate.of(2024, 1, 1), TariffTable.DEFAULT);
+        tariffs.put(LocalDate.of(2025, 1, 1), new TariffTable(200_00, 50_00, 3));
+        final TariffSchedule schedule = new TariffSchedule(tariffs);
+        final TransactionParty child = buildChild(3);
+
+        final ChildCostCalculator before = new ChildCostCalculator(accountController, schedule, clockAt("2024-12-31T23:59:59Z"));
+        final ChildCostCalculator after = new ChildCostCalculator(accountController, schedule, clockAt("2025-01-01T00:00:00Z"));
+
+        assertEquals(750_00, before.calculateMonthlyCostInCents(child));
+        assertEquals(750_00, after.calculateMonthlyCostInCents(child));
+        assertEquals(1200_00, after.calculateMonthlyCostInCents(buildChild(6)));
+        assertEquals(1500_00, before.calculateMonthlyCostInCents(buildChild(10)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenThereIsNoEffectiveTariff() {
+        final TariffSchedule schedule = new TariffSchedule(Collections.singletonMap(LocalDate.of(2030, 1, 1), TariffTable.DEFAULT));
+        final ChildCostCalculator calculator = new ChildCostCalculator(accountController, schedule, clockAt("2024-01-01T00:00:00Z"));
+
+        assertThrows(IllegalStateException.class, () -> calculator.calculateMonthlyCost(buildChild(3)));
+    }
+
+    @Test
+    void shouldCalculateBatchCostsMatchingSingleCosts() {
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        final List<TransactionParty> children = new ArrayList<>();
+        for (int age = 0; age <= 30; age++) {
+            final TransactionParty child = buildChild(age);
+            if (age % 3 != 0) {
+                final Account account = AccountDataProvider.provide(AccountType.CHILD_ACCOUNT);
+                accountController.addAccount(child, account);
+                account.addTransaction(TransactionDataProvider.provide(
+                        age % 3 == 1 ? TransactionSubject.CHILD_SALARY : TransactionSubject.PAYMENT, company));
+            }
+            children.add(child);
+        }
+
+        final long[] costs = childCostCalculator.calculateMonthlyCostsInCents(children);
+
+        assertEquals(children.size(), costs.length);
+        for (int i = 0; i < children.size(); i++) {
+            assertEquals(childCostCalculator.calculateMonthlyCostInCents(children.get(i)), costs[i]);
+        }
+    }
+
+    @Test
+    void shouldCalculateBatchCostsFromTariffTableWhenAllAgesAreInIt() {
+        final TariffSchedule schedule = new TariffSchedule(Collections.singletonMap(LocalDate.MIN, new TariffTable(200_00, 50_00, 3)));
+        final ChildCostCalculator calculator = new ChildCostCalculator(accountController, schedule, clockAt("2024-01-01T00:00:00Z"));
+        final List<TransactionParty> children = new ArrayList<>();
+        for (int age = 0; age <= TariffTable.TABLE_MAX_AGE; age++) {
+            children.add(buildChild(age));
+        }
+
+        final long[] costs = calculator.calculateMonthlyCostsInCents(children);
+
+        assertEquals(750_00, costs[3]);
+        assertEquals(800_00, costs[4]);
+        for (int i = 0; i < children.size(); i++) {
+            assertEquals(calculator.calculateMonthlyCostInCents(children.get(i)), costs[i]);
+        }
+    }
+
+    @Test
+    void shouldCalculateBatchCostsWithEffectiveTariff() {
+        final TariffSchedule schedule = new TariffSchedule(Collections.singletonMap(LocalDate.MIN, new TariffTable(200_00, 50_00, 3)));
+        final ChildCostCalculator calculator = new ChildCostCalculator(accountController, schedule, clockAt("2024-01-01T00:00:00Z"));
+
+        final long[] costs = calculator.calculateMonthlyCostsInCents(Arrays.asList(buildChild(3), buildChild(4), buildChild(40)));
+
+        assertArrayEquals(new long[]{750_00, 800_00, 8000_00}, costs);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBatchHasNonChild() {
+        final List<TransactionParty> children = Arrays.asList(buildChild(3), TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+
+        assertThrows(IllegalArgumentException.class, () -> childCostCalculator.calculateMonthlyCostsInCents(children));
+    }
+
+    @Test
+    void shouldReturnEmptyCostsForEmptyBatch() {
+        assertEquals(0, childCostCalculator.calculateMonthlyCostsInCents(Collections.emptyList()).length);
+    }
+
+    private static Clock clockAt(final String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
     private TransactionParty buildChild(final Integer age) {
         return new Person(
                 provideId(),
@@ -0,0 +1,164 @@
+package br.com.exercise.apam.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountListener;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class ShardedAccountControllerTest {
+
+    private ShardedAccountController accountController;
+
+    @BeforeEach
+    void setUp() {
+        this.accountController = new ShardedAccountController(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountController.close();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenShardCountIsLowerThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedAccountController(0));
+    }
+
+    @Test
+    void shouldRouteAccountsToTheirShard() {
+        final List<TransactionParty> owners = new ArrayList<>();
+        final List<CompletableFuture<?>> added = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final TransactionParty owner = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+            owners.add(owner);
+            added.add(accountController.addAccount(owner, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT)));
+        }
+        CompletableFuture.allOf(added.toArray(new CompletableFuture<?>[0])).join();
+
+        final Set<AccountController> usedShards = new HashSet<>();
+        for (TransactionParty owner : owners) {
+            final Account account = accountController.getAccount(owner);
+            assertSame(account, accountController.getShard(owner).getAccount(owner));
+            assertSame(account, accountController.getAccount(owner.getId()));
+            usedShards.add(accountController.getShard(owner));
+        }
+        assertEquals(4, usedShards.size());
+        assertEquals(100, accountController.getAccounts().size());
+    }
+
+    @Test
+    void shouldAddTransactionsOnTheShardOfTheSource() {
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        accountController.addAccount(company, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+
+        final List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(TransactionDataProvider.provide(TransactionSubject.DONATION, donor));
+        }
+        accountController.addTransaction(company, TransactionDataProvider.provide(TransactionSubject.DONATION, donor));
+        final int added = accountController.addTransactions(company, batch).join();
+
+        final Account account = accountController.getAccount(company);
+        assertEquals(10, added);
+        assertEquals(11, account.getTransactions().size());
+        assertTrue(account.isBalanceConsistent());
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenSourceDoesNotHaveAccount() {
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        final CompletableFuture<Void> added = accountController.addTransaction(company,
+                TransactionDataProvider.provide(TransactionSubject.DONATION, company));
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, added::get);
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        assertNull(accountController.getAccount(company));
+    }
+
+    @Test
+    void shouldNotifyListenersOfEveryShard() {
+        final AtomicInteger addedAccounts = new AtomicInteger();
+        accountController.addAccountListener(new AccountListener() {
+            @Override
+            public void onAccountAdded(final TransactionParty owner, final Account account) {
+                addedAccounts.incrementAndGet();
+            }
+
+            @Override
+            public void onTransactionAdded(final Account account, final Transaction transaction) {
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            accountController.addAccount(TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                    AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        }
+        accountController.close();
+
+        assertEquals(20, addedAccounts.get());
+    }
+
+    @Test
+    void shouldCalculateCityHallPaymentOnShards() {
+        final TransactionParty cityHall = TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL);
+        final TransactionParty child = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        final ApamAdmin apamAdmin = new ApamAdmin(accountController);
+        apamAdmin.addTransactionParty(cityHall);
+        apamAdmin.addTransactionParty(child);
+        apamAdmin.addTransactionParty(company);
+        apamAdmin.addChild(cityHall, child);
+        final BigDecimal paymentWithoutAccount = apamAdmin.calculateCityHallPayment(cityHall);
+
+        accountController.addAccount(child, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT)).join();
+        apamAdmin.addTransaction(child, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, company));
+
+        final BigDecimal expectedCost = new ChildCostCalculator(accountController).calculateMonthlyCost(child);
+        assertEquals(expectedCost, apamAdmin.calculateCityHallPayment(cityHall));
+        assertTrue(expectedCost.compareTo(paymentWithoutAccount) < 0);
+        assertThrows(IllegalStateException.class, apamAdmin::getAccountController);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAddingToClosedController() {
+        accountController.close();
+
+        assertThrows(IllegalStateException.class, () -> accountController.addAccount(
+                TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY),
+                AccountDataProvider.provide(AccountType.DONATION_ACCOUNT)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAddingNullAccount() {
+        assertThrows(NullPointerException.class, () -> accountController.addAccount(
+                TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY), null));
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.exercise.apam.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+
+@CamelCaseDisplayNameGenerator
+class TariffScheduleTest {
+
+    @Test
+    void shouldCalculateDefaultTariffByAge() {
+        assertEquals(0, TariffTable.DEFAULT.getBaseCostInCents(0));
+        assertEquals(1000_00, TariffTable.DEFAULT.getBaseCostInCents(4));
+        assertEquals(1250_00, TariffTable.DEFAULT.getBaseCostInCents(5));
+        assertEquals(900_00, TariffTable.DEFAULT.getBaseCostInCents(6));
+        assertEquals(150_00L * TariffTable.TABLE_MAX_AGE, TariffTable.DEFAULT.getBaseCostInCents(TariffTable.TABLE_MAX_AGE));
+        assertEquals(150_00L * 90, TariffTable.DEFAULT.getBaseCostInCents(90));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAgeIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> TariffTable.DEFAULT.getBaseCostInCents(-1));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenTariffValueIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new TariffTable(-1, 100_00, 5));
+    }
+
+    @Test
+    void shouldLoadScheduleFromCsv() throws IOException {
+        final TariffSchedule schedule = TariffSchedule.load(new StringReader(
+                "effective_from,cost_per_year,early_childhood_cost_per_year,early_childhood_max_age\n"
+                        + "2024-01-01,15000,10000,5\n"
+                        + "\n"
+                        + "2025-07-01, 17500, 12000, 6\n"));
+
+        final TariffTable tariff2024 = schedule.getTariffAt(LocalDate.of(2025, 6, 30));
+        final TariffTable tariff2025 = schedule.getTariffAt(LocalDate.of(2025, 7, 1));
+        assertEquals(150_00, tariff2024.getCostPerYearCents());
+        assertEquals(175_00, tariff2025.getCostPerYearCents());
+        assertEquals(120_00, tariff2025.getEarlyChildhoodCostPerYearCents());
+        assertEquals(6, tariff2025.getEarlyChildhoodMaxAge());
+        assertEquals(6 * (175_00 + 120_00), tariff2025.getBaseCostInCents(6));
+        assertThrows(IllegalStateException.class, () -> schedule.getTariffAt(LocalDate.of(2023, 12, 31)));
+    }
+
+    @Test
+    void shouldThrowExceptionWithLineNumberWhenCsvLineIsNotValid() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> TariffSchedule.load(new StringReader("header\n2024-01-01,15000,10000,5\n2025-13-01,1,1,1\n")));
+
+        assertTrue(exception.getMessage().startsWith("Line 3"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCsvHasNoTariffs() {
+        assertThrows(IllegalArgumentException.class, () -> TariffSchedule.load(new StringReader("header\n")));
+    }
+
+    @Test
+    void shouldUseDefaultTariffForAnyDate() {
+        assertSame(TariffTable.DEFAULT, TariffSchedule.DEFAULT.getTariffAt(LocalDate.of(1900, 1, 1)));
+        assertSame(TariffTable.DEFAULT, new TariffSchedule(Collections.singletonMap(LocalDate.MIN, TariffTable.DEFAULT))
+                .getTariffAt(LocalDate.now()));
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.exercise.apam.controller;
+
+import static br.com.exercise.apam.dataprovider.CommonsProvider.provideId;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Person;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+
+@CamelCaseDisplayNameGenerator
+class TransactionPartyRegistryTest {
+
+    private static final TransactionParty PITANGUI = TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL);
+    private static final TransactionParty FRANISCO = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+    private static final TransactionParty ISIS = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+
+    private TransactionPartyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        this.registry = new TransactionPartyRegistry();
+    }
+
+    @Test
+    void shouldKeepInsertionOrder() {
+        registry.add(FRANISCO);
+        registry.add(PITANGUI);
+        registry.add(ISIS);
+
+        assertEquals(3, registry.size());
+        assertEquals(FRANISCO, registry.getTransactionParties().get(0));
+        assertEquals(PITANGUI, registry.getTransactionParties().get(1));
+        assertEquals(ISIS, registry.getTransactionParties().get(2));
+    }
+
+    @Test
+    void shouldIgnoreTransactionPartyWithSameId() {
+        final Person copy = new Person(FRANISCO.getId(), FRANISCO.getName(), FRANISCO.getAge(), FRANISCO.getType());
+
+        assertTrue(registry.add(FRANISCO));
+        assertFalse(registry.add(copy));
+
+        assertEquals(1, registry.size());
+        assertTrue(registry.contains(copy));
+    }
+
+    @Test
+    void shouldReturnTransactionPartyById() {
+        registry.add(PITANGUI);
+
+        assertEquals(PITANGUI, registry.getTransactionParty(PITANGUI.getId()));
+        assertNull(registry.getTransactionParty(provideId()));
+    }
+
+    @Test
+    void shouldIndexTransactionPartiesByType() {
+        registry.add(FRANISCO);
+        registry.add(PITANGUI);
+        registry.add(ISIS);
+
+        assertEquals(2, registry.getTransactionParties(TransactionPartyType.CHILD).size());
+        assertEquals(ISIS, registry.getTransactionParties(TransactionPartyType.CHILD).get(1));
+        assertEquals(1, registry.getTransactionParties(TransactionPartyType.CITY_HALL).size());
+        assertTrue(registry.getTransactionParties(TransactionPartyType.DONOR).isEmpty());
+    }
+
+    @Test
+    void shouldIterateViewsWhileAddingTransactionParties() {
+        registry.add(FRANISCO);
+        final List<TransactionParty> children = registry.getTransactionParties(TransactionPartyType.CHILD);
+
+        int iterated = 0;
+        for (TransactionParty ignored : registry.getTransactionParties()) {
+            registry.add(TransactionPartyDataProvider.provide(TransactionPartyType.CHILD));
+            iterated++;
+        }
+
+        assertEquals(1, iterated);
+        assertEquals(2, children.size());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void shouldKeepOrderWhenAddingManyTransactionParties() {
+        final TransactionParty[] children = new TransactionParty[5000];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+            registry.add(children[i]);
+        }
+
+        final List<TransactionParty> view = registry.getTransactionParties(TransactionPartyType.CHILD);
+        assertEquals(children.length, view.size());
+        for (int i = 0; i < children.length; i++) {
+            assertEquals(children[i], view.get(i));
+        }
+        assertEquals(children.length, view.stream().count());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(children.length));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(PITANGUI));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAddingNullTransactionParty() {
+        assertThrows(NullPointerException.class, () -> registry.add(null));
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.exercise.apam.importer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.Transaction;
+
+@CamelCaseDisplayNameGenerator
+class BulkImporterTest {
+
+    private static final String PARTIES = "id,name,age,type\n"
+            + "apam,APAM,30,COMPANY\n"
+            + "robson,\"Robson, the Donor\",40,DONOR\n"
+            + "franisco,Franisco,8,CHILD\n"
+            + "broken,Broken,not a number,DONOR\n";
+
+    private static final String ACCOUNTS = "owner,id,number,type\n"
+            + "apam,apam-account,0001,DONATION_ACCOUNT\n"
+            + "franisco,franisco-account,0002,CHILD_ACCOUNT\n"
+            + "nobody,nobody-account,0003,CHILD_ACCOUNT\n";
+
+    private AccountController accountController;
+    private ApamAdmin apamAdmin;
+    private BulkImporter bulkImporter;
+
+    @BeforeEach
+    void setUp() {
+        this.accountController = new AccountController();
+        this.apamAdmin = new ApamAdmin(accountController);
+        this.bulkImporter = new BulkImporter(apamAdmin, 3, 7);
+    }
+
+    @Test
+    void shouldImportPartiesAccountsAndTransactions() throws IOException {
+        final StringBuilder transactions = new StringBuilder("owner,id,description,value,subject,party\n");
+        for (int i = 0; i < 100; i++) {
+            transactions.append("apam,donation-").append(i).append(",Donation,1.50,DONATION,robson\n");
+        }
+        transactions.append("apam,payment,Payment,10.25,PAYMENT,apam\n");
+        transactions.append("franisco,salary,Salary,99.99,CHILD_SALARY,apam\n");
+
+        assertEquals(3, bulkImporter.importParties(new StringReader(PARTIES)).getImportedRows());
+        assertEquals(2, bulkImporter.importAccounts(new StringReader(ACCOUNTS)).getImportedRows());
+        final ImportResult result = bulkImporter.importTransactions(new StringReader(transactions.toString()));
+
+        assertEquals(102, result.getImportedRows());
+        assertEquals("Robson, the Donor", apamAdmin.getTransactionParty("robson").getName());
+
+        final Account apamAccount = accountController.getAccount("apam");
+        assertEquals(new BigDecimal("139.75"), apamAccount.getBalance());
+        final List<Transaction> apamTransactions = apamAccount.getTransactions();
+        for (int i = 0; i < 100; i++) {
+            assertEquals("donation-" + i, apamTransactions.get(i).getId());
+        }
+        assertEquals(new BigDecimal("99.99"), accountController.getAccount("franisco").getBalance());
+    }
+
+    @Test
+    void shouldReportRejectedRows() throws IOException {
+        final String transactions = "owner,id,description,value,subject,party\n"
+                + "apam,t1,Donation,1.00,DONATION,robson\n"
+                + "apam,t2,Donation,1.00,DONATION,unknown\n"
+                + "apam,t3,Donation,1.00,CHILD_SALARY,apam\n"
+                + "apam,t4,Donation,1.00\n"
+                + "apam,t5,Donation,abc,DONATION,robson\n"
+                + "robson,t6,Donation,1.00,DONATION,robson\n";
+
+        final ImportResult partiesResult = bulkImporter.importParties(new StringReader(PARTIES));
+        final ImportResult accountsResult = bulkImporter.importAccounts(new StringReader(ACCOUNTS));
+        final ImportResult result = bulkImporter.importTransactions(new StringReader(transactions));
+
+        assertEquals(5, partiesResult.getRejectedRows().get(0).getLineNumber());
+        assertEquals(4, accountsResult.getRejectedRows().get(0).getLineNumber());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(5, result.getRejectedRows().size());
+        for (int i = 0; i < result.getRejectedRows().size(); i++) {
+            assertEquals(i + 3, result.getRejectedRows().get(i).getLineNumber());
+        }
+        assertEquals("Invalid Transaction for Account", result.getRejectedRows().get(1).getReason());
+    }
+
+    @Test
+    void shouldKeepOnlyFirstRejectedRows() throws IOException {
+        final StringBuilder transactions = new StringBuilder("owner,id,description,value,subject,party\n");
+        for (int i = 0; i < 50; i++) {
+            transactions.append("apam,t").append(i).append(",Donation,1.00,").append(i % 2 == 0 ? "DONATION" : "CHILD_SALARY")
+                    .append(",robson\n");
+        }
+
+        bulkImporter.importParties(new StringReader(PARTIES));
+        bulkImporter.importAccounts(new StringReader(ACCOUNTS));
+        final ImportResult result = new BulkImporter(apamAdmin, 3, 7, 3).importTransactions(new StringReader(transactions.toString()));
+
+        assertEquals(25, result.getImportedRows());
+        assertEquals(25, result.getRejectedRowCount());
+        assertEquals(3, result.getRejectedRows().size());
+        for (int i = 0; i < result.getRejectedRows().size(); i++) {
+            assertEquals(2 * i + 3, result.getRejectedRows().get(i).getLineNumber());
+        }
+        assertEquals(new BigDecimal("25.00"), accountController.getAccount("apam").getBalance());
+    }
+
+    @Test
+    void shouldNotCountTransactionsImportedTwice() throws IOException {
+        final StringBuilder transactions = new StringBuilder("owner,id,description,value,subject,party\n");
+        for (int i = 0; i < 20; i++) {
+            transactions.append("apam,donation-").append(i).append(",Donation,1.00,DONATION,robson\n");
+        }
+        transactions.append("apam,salary,Salary,1.00,CHILD_SALARY,apam\n");
+        transactions.append("franisco,salary,Salary,99.99,CHILD_SALARY,apam\n");
+        bulkImporter.importParties(new StringReader(PARTIES));
+        bulkImporter.importAccounts(new StringReader(ACCOUNTS));
+
+        final ImportResult first = bulkImporter.importTransactions(new StringReader(transactions.toString()));
+        final ImportResult second = bulkImporter.importTransactions(new StringReader(transactions.toString()));
+
+        assertEquals(21, first.getImportedRows());
+        assertEquals(1, first.getRejectedRowCount());
+        assertEquals(0, second.getImportedRows());
+        assertEquals(1, second.getRejectedRowCount());
+        assertEquals(new BigDecimal("20.00"), accountController.getAccount("apam").getBalance());
+        assertEquals(new BigDecimal("99.99"), accountController.getAccount("franisco").getBalance());
+    }
+
+    @Test
+    void shouldFailWhenPostingThreadDies() throws IOException {
+        final StringBuilder transactions = new StringBuilder("owner,id,description,value,subject,party\n");
+        for (int i = 0; i < 100; i++) {
+            transactions.append("apam,donation-").append(i).append(",Donation,1.00,DONATION,robson\n");
+        }
+        bulkImporter.importParties(new StringReader(PARTIES));
+        bulkImporter.importAccounts(new StringReader(ACCOUNTS));
+        accountController.getAccount("apam").addListener((account, transaction) -> {
+            throw new AssertionError("Posting thread died");
+        });
+        final BulkImporter singleThreadImporter = new BulkImporter(apamAdmin, 1, 1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class,
+                () -> singleThreadImporter.importTransactions(new StringReader(transactions.toString()))));
+    }
+
+    @Test
+    void shouldParseQuotedFields() {
+        assertArrayEquals(new String[]{"a", "b, \"c\"", ""}, BulkImporter.parseLine("a,\"b, \"\"c\"\"\",", 3));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRowHasWrongNumberOfColumns() {
+        assertThrows(IllegalArgumentException.class, () -> BulkImporter.parseLine("a,b", 3));
+        assertThrows(IllegalArgumentException.class, () -> BulkImporter.parseLine("a,b,c,d", 3));
+        assertThrows(IllegalArgumentException.class, () -> BulkImporter.parseLine("a,\"b,c", 3));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPostingThreadsIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkImporter(apamAdmin, 0, 10));
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.exercise.apam.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.controller.ChildCostCalculator;
+import br.com.exercise.apam.controller.TariffSchedule;
+import br.com.exercise.apam.controller.TariffTable;
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class ApamSnapshotTest {
+
+    private static final TransactionParty APAM = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+    private static final TransactionParty PITANGUI = TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL);
+    private static final TransactionParty FRANISCO = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+    private static final TransactionParty ISIS = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private ApamAdmin apamAdmin;
+
+    @BeforeEach
+    void setUp() {
+        this.snapshotPath = tempDir.resolve("apam.snapshot");
+
+        final AccountController accountController = new AccountController();
+        this.apamAdmin = new ApamAdmin(accountController);
+        apamAdmin.addTransactionParty(APAM);
+        apamAdmin.addTransactionParty(PITANGUI);
+        apamAdmin.addTransactionParty(FRANISCO);
+        apamAdmin.addTransactionParty(ISIS);
+        apamAdmin.addChild(PITANGUI, FRANISCO);
+        apamAdmin.addChild(PITANGUI, ISIS);
+
+        accountController.addAccount(APAM, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+        accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+        for (int i = 0; i < 10; i++) {
+            accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+        }
+        accountController.addTransaction(APAM, TransactionDataProvider.provide(TransactionSubject.PAYMENT, APAM));
+        accountController.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, APAM));
+    }
+
+    @Test
+    void shouldRestoreCapturedState() throws IOException {
+        ApamSnapshot.capture(apamAdmin).write(snapshotPath);
+
+        final ApamAdmin restored = ApamSnapshot.load(snapshotPath);
+
+        assertEquals(apamAdmin.getTransactionPartyList(), restored.getTransactionPartyList());
+        assertEquals(apamAdmin.getCityHallChildren(PITANGUI), restored.getCityHallChildren(PITANGUI));
+        assertEquals(PITANGUI, restored.getCityHallOf(ISIS));
+        assertEquals(apamAdmin.calculateCityHallPayment(PITANGUI), restored.calculateCityHallPayment(PITANGUI));
+        assertAccountRestored(apamAdmin.getAccountController().getAccount(APAM), restored.getAccountController().getAccount(APAM));
+        assertAccountRestored(apamAdmin.getAccountController().getAccount(FRANISCO), restored.getAccountController().getAccount(FRANISCO));
+    }
+
+    @Test
+    void shouldRestoreWithGivenTariffSchedule() throws IOException {
+        final TariffSchedule tariffSchedule = new TariffSchedule(
+                Collections.singletonMap(LocalDate.MIN, new TariffTable(300_00, 0, 0)));
+        final Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        ApamSnapshot.capture(apamAdmin).write(snapshotPath);
+
+        final ApamAdmin restored = ApamSnapshot.load(snapshotPath, tariffSchedule, clock);
+
+        final ChildCostCalculator calculator = new ChildCostCalculator(restored.getAccountController(), tariffSchedule, clock);
+        assertEquals(calculator.calculateMonthlyCost(FRANISCO).add(calculator.calculateMonthlyCost(ISIS)),
+                restored.calculateCityHallPayment(PITANGUI));
+    }
+
+    @Test
+    void shouldWriteSnapshotInBackground() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ApamSnapshot snapshot = ApamSnapshot.capture(apamAdmin);
+            accountController().addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+
+            assertEquals(snapshotPath, snapshot.writeAsync(snapshotPath, executor).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        final Account restored = ApamSnapshot.load(snapshotPath).getAccountController().getAccount(APAM);
+        assertEquals(11, restored.getTransactions().size());
+        assertEquals(restored.calculateBalance(), restored.getBalance());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSnapshotIsCorrupted() throws IOException {
+        ApamSnapshot.capture(apamAdmin).write(snapshotPath);
+        final byte[] bytes = Files.readAllBytes(snapshotPath);
+        bytes[bytes.length / 2] ^= 0x7F;
+        Files.write(snapshotPath, bytes);
+
+        assertThrows(IllegalStateException.class, () -> ApamSnapshot.load(snapshotPath));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenFileIsNotSnapshot() throws IOException {
+        Files.write(snapshotPath, new byte[]{1, 2, 3});
+
+        assertThrows(IllegalStateException.class, () -> ApamSnapshot.load(snapshotPath));
+    }
+
+    private AccountController accountController() {
+        return apamAdmin.getAccountController();
+    }
+
+    private void assertAccountRestored(final Account expected, final Account actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getBalance(), actual.getBalance());
+        assertEquals(expected.getTransactions().size(), actual.getTransactions().size());
+        for (int i = 0; i < expected.getTransactions().size(); i++) {
+            final Transaction expectedTransaction = expected.getTransactions().get(i);
+            final Transaction actualTransaction = actual.getTransactions().get(i);
+            assertEquals(expectedTransaction.getId(), actualTransaction.getId());
+            assertEquals(expectedTransaction.getDescription(), actualTransaction.getDescription());
+            assertEquals(expectedTransaction.getValue(), actualTransaction.getValue());
+            assertEquals(expectedTransaction.getSubject(), actualTransaction.getSubject());
+            assertEquals(expectedTransaction.getParty(), actualTransaction.getParty());
+            assertEquals(expectedTransaction.getPostedAt(), actualTransaction.getPostedAt());
+        }
+    }
+}
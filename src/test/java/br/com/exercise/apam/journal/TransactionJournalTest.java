@@ -0,0 +1,156 @@
+package br.com.exercise.apam.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class TransactionJournalTest {
+
+    private static final TransactionParty APAM = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+    private static final TransactionParty FRANISCO = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+
+    @TempDir
+    Path tempDir;
+
+    private Path journalPath;
+
+    @BeforeEach
+    void setUp() {
+        this.journalPath = tempDir.resolve("transactions.journal");
+    }
+
+    @Test
+    void shouldReplayAccountsAndTransactions() throws IOException {
+        final AccountController accountController = new AccountController();
+        try (TransactionJournal journal = new TransactionJournal(journalPath, 3)) {
+            accountController.addAccountListener(journal);
+            accountController.addAccount(APAM, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+            accountController.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+            for (int i = 0; i < 10; i++) {
+                accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+            }
+            accountController.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, APAM));
+        }
+
+        final AccountController replayed = new AccountController();
+        assertEquals(13, TransactionJournal.replay(journalPath, replayed));
+
+        assertAccountReplayed(accountController.getAccount(APAM), replayed.getAccount(APAM));
+        assertAccountReplayed(accountController.getAccount(FRANISCO), replayed.getAccount(FRANISCO));
+    }
+
+    @Test
+    void shouldIgnoreIncompleteRecordAtTheEnd() throws IOException {
+        final AccountController accountController = new AccountController();
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        try (TransactionJournal journal = new TransactionJournal(journalPath)) {
+            journal.onAccountAdded(APAM, account);
+            account.addListener(journal);
+            accountController.addAccount(APAM, account);
+            accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+            account.removeListener(journal);
+        }
+        Files.write(journalPath, new byte[]{0, 0, 1, 0, 7, 7}, StandardOpenOption.APPEND);
+
+        try (TransactionJournal journal = new TransactionJournal(journalPath)) {
+            account.addListener(journal);
+            accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+            account.removeListener(journal);
+        }
+
+        final AccountController replayed = new AccountController();
+        assertEquals(3, TransactionJournal.replay(journalPath, replayed));
+        assertAccountReplayed(accountController.getAccount(APAM), replayed.getAccount(APAM));
+    }
+
+    @Test
+    void shouldJournalReplayedAccountsAfterRegistration() throws IOException {
+        final AccountController accountController = new AccountController();
+        try (TransactionJournal journal = new TransactionJournal(journalPath)) {
+            journal.register(accountController);
+            accountController.addAccount(APAM, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+            accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+        }
+
+        final AccountController restarted = new AccountController();
+        assertEquals(2, TransactionJournal.replay(journalPath, restarted));
+        restarted.addAccount(FRANISCO, AccountDataProvider.provide(AccountType.CHILD_ACCOUNT));
+        try (TransactionJournal journal = new TransactionJournal(journalPath)) {
+            journal.register(restarted);
+            restarted.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+            restarted.addTransaction(FRANISCO, TransactionDataProvider.provide(TransactionSubject.CHILD_SALARY, APAM));
+        }
+
+        final AccountController replayed = new AccountController();
+        assertEquals(5, TransactionJournal.replay(journalPath, replayed));
+        assertAccountReplayed(restarted.getAccount(APAM), replayed.getAccount(APAM));
+        assertAccountReplayed(restarted.getAccount(FRANISCO), replayed.getAccount(FRANISCO));
+    }
+
+    @Test
+    void shouldFailWhenRecordBeforeTheEndIsCorrupted() throws IOException {
+        final AccountController accountController = new AccountController();
+        try (TransactionJournal journal = new TransactionJournal(journalPath)) {
+            journal.register(accountController);
+            accountController.addAccount(APAM, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT));
+            accountController.addTransaction(APAM, TransactionDataProvider.providePersonDonation());
+        }
+        final byte[] content = Files.readAllBytes(journalPath);
+        content[10] ^= 1;
+        Files.write(journalPath, content);
+
+        assertThrows(IOException.class, () -> new TransactionJournal(journalPath));
+        assertThrows(IOException.class, () -> TransactionJournal.replay(journalPath, new AccountController()));
+        assertEquals(content.length, Files.size(journalPath));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenWritingToClosedJournal() throws IOException {
+        final TransactionJournal journal = new TransactionJournal(journalPath);
+        journal.close();
+
+        assertThrows(IllegalStateException.class,
+                () -> journal.onAccountAdded(APAM, AccountDataProvider.provide(AccountType.DONATION_ACCOUNT)));
+    }
+
+    private void assertAccountReplayed(final Account expected, final Account actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getBalance(), actual.getBalance());
+        assertEquals(expected.getTransactions().size(), actual.getTransactions().size());
+        for (int i = 0; i < expected.getTransactions().size(); i++) {
+            final Transaction expectedTransaction = expected.getTransactions().get(i);
+            final Transaction actualTransaction = actual.getTransactions().get(i);
+            assertEquals(expectedTransaction.getId(), actualTransaction.getId());
+            assertEquals(expectedTransaction.getDescription(), actualTransaction.getDescription());
+            assertEquals(expectedTransaction.getValue(), actualTransaction.getValue());
+            assertEquals(expectedTransaction.getSubject(), actualTransaction.getSubject());
+            assertEquals(expectedTransaction.getParty(), actualTransaction.getParty());
+            assertEquals(expectedTransaction.getPostedAt(), actualTransaction.getPostedAt());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.exercise.apam.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.controller.AccountController;
+import br.com.exercise.apam.controller.ApamAdmin;
+import br.com.exercise.apam.dataprovider.AccountDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class MetricsRegistryTest {
+
+    @Test
+    void shouldReturnSameMetricForSameName() {
+        final MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("requests"), registry.counter("requests"));
+        assertSame(registry.histogram("latency"), registry.histogram("latency"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenNameIsUsedByAnotherKind() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("requests"));
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("requests", () -> 1));
+    }
+
+    @Test
+    void shouldExportPlainTextSnapshot() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final AtomicLong queued = new AtomicLong(7);
+        registry.counter("requests").add(3);
+        registry.gauge("queued", queued::get);
+        registry.histogram("latency").record(10);
+
+        assertEquals("counter requests 3\n"
+                + "gauge queued 7\n"
+                + "histogram latency count=1 mean=10 p50=10 p90=10 p99=10 p99.9=10 max=10\n", registry.snapshot());
+    }
+
+    @Test
+    void shouldResetCountersAndHistograms() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests").increment();
+        registry.histogram("latency").record(10);
+
+        registry.reset();
+
+        assertEquals(0, registry.counter("requests").get());
+        assertEquals(0, registry.histogram("latency").getCount());
+    }
+
+    @Test
+    void shouldRecordApamMetricsWhenEnabled() {
+        assumeTrue(ApamMetrics.ENABLED);
+        final TransactionParty cityHall = TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL);
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final AccountController accountController = new AccountController();
+        final ApamAdmin apamAdmin = new ApamAdmin(accountController);
+        apamAdmin.addTransactionParty(cityHall);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Transaction donation = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+        final long addedTransactions = ApamMetrics.ADD_TRANSACTION.getCount();
+        final long duplicatedTransactions = ApamMetrics.DUPLICATED_TRANSACTIONS.get();
+        final long accountMisses = ApamMetrics.ACCOUNT_MISSES.get();
+        final long payments = ApamMetrics.CITY_HALL_PAYMENT.getCount();
+        final long accounts = ApamMetrics.ACCOUNTS_ADDED.get();
+        final long transactions = ApamMetrics.TRANSACTIONS_ADDED.get();
+
+        accountController.addAccount(donor, account);
+        account.addTransaction(donation);
+        account.addTransaction(donation);
+        accountController.getAccount(cityHall);
+        assertEquals(BigDecimal.ZERO, apamAdmin.calculateCityHallPayment(cityHall));
+
+        assertTrue(ApamMetrics.ADD_TRANSACTION.getCount() >= addedTransactions + 2);
+        assertTrue(ApamMetrics.DUPLICATED_TRANSACTIONS.get() >= duplicatedTransactions + 1);
+        assertTrue(ApamMetrics.ACCOUNT_MISSES.get() >= accountMisses + 1);
+        assertTrue(ApamMetrics.CITY_HALL_PAYMENT.getCount() >= payments + 1);
+        assertTrue(ApamMetrics.ACCOUNTS_ADDED.get() >= accounts + 1);
+        assertTrue(ApamMetrics.TRANSACTIONS_ADDED.get() >= transactions + 1);
+        final String snapshot = ApamMetrics.snapshot();
+        assertTrue(snapshot.contains("histogram account.addTransaction count="));
+        assertTrue(snapshot.contains("counter accounts.added "));
+        assertTrue(snapshot.contains("counter transactions.added "));
+    }
+
+    @Test
+    void shouldNotRecordApamMetricsWhenDisabled() {
+        assumeFalse(ApamMetrics.ENABLED);
+        final TransactionParty cityHall = TransactionPartyDataProvider.provide(TransactionPartyType.CITY_HALL);
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final AccountController accountController = new AccountController();
+        final ApamAdmin apamAdmin = new ApamAdmin(accountController);
+        apamAdmin.addTransactionParty(cityHall);
+        final Account account = AccountDataProvider.provide(AccountType.DONATION_ACCOUNT);
+        final Transaction donation = TransactionDataProvider.provide(TransactionSubject.DONATION, donor);
+
+        accountController.addAccount(donor, account);
+        account.addTransaction(donation);
+        account.addTransaction(donation);
+        accountController.getAccount(cityHall);
+        assertEquals(BigDecimal.ZERO, apamAdmin.calculateCityHallPayment(cityHall));
+
+        assertEquals(1, account.getTransactions().size());
+        assertEquals(0, ApamMetrics.ADD_TRANSACTION.getCount());
+        assertEquals(0, ApamMetrics.DUPLICATED_TRANSACTIONS.get());
+        assertEquals(0, ApamMetrics.ACCOUNT_MISSES.get());
+        assertEquals(0, ApamMetrics.CITY_HALL_PAYMENT.getCount());
+        assertEquals(0, ApamMetrics.ACCOUNTS_ADDED.get());
+        assertEquals(0, ApamMetrics.TRANSACTIONS_ADDED.get());
+    }
+}
@@ -9,6 +9,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -119,6 +128,45 @@ class AccountTest {
         assertEquals(transaction1.getValue().add(transaction2.getValue()), account.getBalance());
     }
 
+    @Test
+    void shouldSubtractOutTransactionsFromBalance() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final Transaction donation = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+        final Transaction payment = TransactionDataProvider.provide(
+                TransactionSubject.PAYMENT,
+                TransactionPartyDataProvider.provide(TransactionPartyType.EMPLOYEE));
+
+        account.addTransaction(donation);
+        account.addTransaction(payment);
+
+        assertEquals(donation.getValue().subtract(payment.getValue()), account.getBalance());
+    }
+
+    @Test
+    void shouldKeepBalanceConsistentWithTransactions() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        for (int i = 0; i < 10; i++) {
+            account.addTransaction(TransactionDataProvider.provide(
+                    TransactionSubject.DONATION,
+                    TransactionPartyDataProvider.provide(TransactionPartyType.DONOR)));
+        }
+
+        assertTrue(account.isBalanceConsistent());
+        assertEquals(account.calculateBalance(), account.getBalance());
+    }
+
+    @Test
+    void shouldNotAllowChangingTransactionsOutsideAccount() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+
+        assertThrows(UnsupportedOperationException.class, () -> account.getTransactions().add(transaction));
+    }
+
     @Test
     void shouldAddTransaction() {
         final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
@@ -146,6 +194,98 @@ class AccountTest {
         assertEquals(transaction, account.getTransactions().get(0));
     }
 
+    @Test
+    void shouldNotAddTransactionWithDuplicatedId() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+        final Transaction duplicated = new Transaction(
+                transaction.getId(),
+                provideDescription(),
+                transaction.getValue(),
+                TransactionSubject.DONATION,
+                transaction.getParty());
+
+        account.addTransaction(transaction);
+        account.addTransaction(duplicated);
+
+        assertEquals(1, account.getTransactions().size());
+        assertTrue(account.containsTransaction(transaction.getId()));
+        assertEquals(transaction.getValue(), account.getBalance());
+    }
+
+    @Test
+    void shouldIgnoreAlreadyAddedIdsBeforeValidatingBatch() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final Transaction transaction = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+        final Transaction invalidWithSameId = new Transaction(
+                transaction.getId(),
+                provideDescription(),
+                transaction.getValue(),
+                TransactionSubject.CHILD_SALARY,
+                TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY));
+        final Transaction newTransaction = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+        account.addTransaction(transaction);
+
+        assertEquals(1, account.addTransactions(Arrays.asList(invalidWithSameId, newTransaction)));
+        assertEquals(2, account.getTransactions().size());
+        assertTrue(account.isBalanceConsistent());
+    }
+
+    @Test
+    void shouldNotifyListenersOncePerBatch() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final List<List<Transaction>> batches = new ArrayList<>();
+        account.addListener(new AccountListener() {
+            @Override
+            public void onTransactionAdded(final Account changed, final Transaction transaction) {
+                batches.add(Collections.singletonList(transaction));
+            }
+
+            @Override
+            public void onTransactionsAdded(final Account changed, final List<Transaction> transactions) {
+                batches.add(transactions);
+            }
+        });
+        final Transaction first = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+        final Transaction second = TransactionDataProvider.provide(
+                TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR));
+
+        account.addTransactions(Arrays.asList(first, second, first));
+
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList(first, second), batches.get(0));
+    }
+
+    @Test
+    void shouldAddTransactionsConcurrently() throws InterruptedException {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            transactions.add(TransactionDataProvider.provide(
+                    TransactionSubject.DONATION,
+                    TransactionPartyDataProvider.provide(TransactionPartyType.DONOR)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> transactions.forEach(account::addTransaction));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(transactions.size(), account.getTransactions().size());
+        assertTrue(account.isBalanceConsistent());
+    }
+
     @Test
     void shouldThrowExceptionWhenAddingNullTransaction() {
         final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
@@ -183,6 +323,67 @@ class AccountTest {
         assertEquals("Invalid Transaction for Account", exception.getMessage());
     }
 
+    @Test
+    void shouldAggregateTransactionsByMonth() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        final TransactionParty company = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+        account.addTransaction(postedAt("2024-01-10T10:00:00Z", new BigDecimal("100.00"), TransactionSubject.DONATION, donor));
+        account.addTransaction(postedAt("2024-01-31T23:59:59Z", new BigDecimal("50.00"), TransactionSubject.DONATION, donor));
+        account.addTransaction(postedAt("2024-01-20T08:00:00Z", new BigDecimal("30.00"), TransactionSubject.PAYMENT, company));
+        account.addTransaction(postedAt("2024-03-01T00:00:00Z", new BigDecimal("20.00"), TransactionSubject.PAYMENT, company));
+
+        final MonthlyStatement january = account.getMonthlyStatement(YearMonth.of(2024, 1));
+        assertEquals(3, january.getTransactionCount());
+        assertEquals(new BigDecimal("150.00"), january.getTotal(TransactionSubject.DONATION));
+        assertEquals(new BigDecimal("30.00"), january.getTotal(TransactionSubject.PAYMENT));
+        assertEquals(BigDecimal.ZERO, january.getOpeningBalance());
+        assertEquals(new BigDecimal("120.00"), january.getClosingBalance());
+
+        final MonthlyStatement march = account.getMonthlyStatement(YearMonth.of(2024, 3));
+        assertEquals(new BigDecimal("120.00"), march.getOpeningBalance());
+        assertEquals(new BigDecimal("100.00"), march.getClosingBalance());
+        assertEquals(account.getBalance(), account.getBalanceAtEndOf(YearMonth.of(2024, 3)));
+    }
+
+    @Test
+    void shouldReturnEmptyStatementForMonthWithoutTransactions() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        account.addTransaction(postedAt("2024-01-10T10:00:00Z", new BigDecimal("100.00"), TransactionSubject.DONATION,
+                TransactionPartyDataProvider.provide(TransactionPartyType.DONOR)));
+
+        final MonthlyStatement february = account.getMonthlyStatement(YearMonth.of(2024, 2));
+
+        assertEquals(0, february.getTransactionCount());
+        assertTrue(february.getTotals().isEmpty());
+        assertEquals(new BigDecimal("100.00"), february.getOpeningBalance());
+        assertEquals(new BigDecimal("100.00"), february.getClosingBalance());
+        assertEquals(BigDecimal.ZERO, account.getBalanceAtEndOf(YearMonth.of(2023, 12)));
+    }
+
+    @Test
+    void shouldListMonthlyStatementsInOrder() {
+        final Account account = new Account(provideId(), provideDescription(), AccountType.DONATION_ACCOUNT);
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+        account.addTransaction(postedAt("2024-05-10T10:00:00Z", new BigDecimal("10.00"), TransactionSubject.DONATION, donor));
+        account.addTransaction(postedAt("2023-11-10T10:00:00Z", new BigDecimal("20.00"), TransactionSubject.DONATION, donor));
+        account.addTransaction(postedAt("2024-02-10T10:00:00Z", new BigDecimal("30.00"), TransactionSubject.DONATION, donor));
+
+        final List<MonthlyStatement> statements = account.getMonthlyStatements();
+
+        assertEquals(3, statements.size());
+        assertEquals(YearMonth.of(2023, 11), statements.get(0).getMonth());
+        assertEquals(YearMonth.of(2024, 2), statements.get(1).getMonth());
+        assertEquals(YearMonth.of(2024, 5), statements.get(2).getMonth());
+        assertEquals(new BigDecimal("20.00"), statements.get(1).getOpeningBalance());
+        assertEquals(new BigDecimal("60.00"), statements.get(2).getClosingBalance());
+    }
+
+    private static Transaction postedAt(final String instant, final BigDecimal value, final TransactionSubject subject,
+                                        final TransactionParty party) {
+        return new Transaction(provideId(), provideDescription(), value, subject, party, Instant.parse(instant));
+    }
+
     private static Stream<Arguments> provideValidTransactions() {
         return Stream.of(
                 Arguments.of(AccountType.CITY_HALL_ACCOUNT, TransactionSubject.CHILD_PAYMENT, TransactionPartyType.CITY_HALL),
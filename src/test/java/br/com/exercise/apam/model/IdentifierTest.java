@@ -0,0 +1,96 @@
+package br.com.exercise.apam.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+
+@CamelCaseDisplayNameGenerator
+class IdentifierTest {
+
+    @Test
+    void shouldKeepUuidAsLongs() {
+        final UUID uuid = UUID.randomUUID();
+        final Identifier identifier = Identifier.of(uuid.toString());
+
+        assertTrue(identifier.isCompact());
+        assertEquals(uuid.toString(), identifier.toString());
+        assertEquals(Identifier.of(uuid), identifier);
+        assertEquals(Identifier.of(uuid).hashCode(), identifier.hashCode());
+    }
+
+    @Test
+    void shouldKeepOtherIdsAsString() {
+        final String upperCaseUuid = UUID.randomUUID().toString().toUpperCase();
+
+        assertFalse(Identifier.of("apam").isCompact());
+        assertEquals("apam", Identifier.of("apam").toString());
+        assertFalse(Identifier.of(upperCaseUuid).isCompact());
+        assertEquals(upperCaseUuid, Identifier.of(upperCaseUuid).toString());
+        assertFalse(Identifier.of("123e4567-e89b-12d3-a456-42661417400g").isCompact());
+    }
+
+    @Test
+    void shouldNotBeEqualToDifferentId() {
+        assertNotEquals(Identifier.of(UUID.randomUUID()), Identifier.of(UUID.randomUUID()));
+        assertNotEquals(Identifier.of("apam"), Identifier.of("Apam"));
+    }
+
+    @Test
+    void shouldReturnIdentifierOfTransactionParty() {
+        final TransactionParty transactionParty = TransactionPartyDataProvider.provide(TransactionPartyType.CHILD);
+
+        assertEquals(Identifier.of(transactionParty.getId()), transactionParty.getIdentifier());
+    }
+
+    @Test
+    void shouldGenerateCompactIdForAnonymousPerson() {
+        final Person anonymous = new Person(TransactionPartyType.DONOR);
+
+        assertTrue(anonymous.getIdentifier().isCompact());
+        assertEquals(anonymous.getId(), UUID.fromString(anonymous.getId()).toString());
+    }
+
+    @Test
+    void shouldReturnUuidBits() {
+        final UUID uuid = UUID.randomUUID();
+        final Identifier identifier = Identifier.of(uuid.toString());
+
+        assertEquals(uuid.getMostSignificantBits(), identifier.getMostSignificantBits());
+        assertEquals(uuid.getLeastSignificantBits(), identifier.getLeastSignificantBits());
+    }
+
+    @Test
+    void shouldReadWrittenIdentifiers() throws IOException {
+        final Identifier compact = Identifier.of(UUID.randomUUID());
+        final Identifier other = Identifier.of("account-42");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            compact.writeTo(output);
+            other.writeTo(output);
+        }
+
+        assertEquals(1 + 2 * Long.BYTES + 1 + 2 + "account-42".length(), bytes.size());
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(compact, Identifier.readFrom(input));
+        assertEquals(other, Identifier.readFrom(input));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenIdIsNull() {
+        assertThrows(NullPointerException.class, () -> Identifier.of((String) null));
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.exercise.apam.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+
+@CamelCaseDisplayNameGenerator
+class MoneyTest {
+
+    @Test
+    void shouldConvertBigDecimalToCents() {
+        assertEquals(222, Money.toCents(new BigDecimal("2.225"), RoundingMode.FLOOR));
+        assertEquals(223, Money.toCents(new BigDecimal("2.225"), RoundingMode.CEILING));
+        assertEquals(-223, Money.toCents(new BigDecimal("-2.225"), RoundingMode.FLOOR));
+        assertEquals(150000, Money.toCents(BigDecimal.valueOf(1500), RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void shouldConvertCentsToBigDecimalWithTwoDecimalPlaces() {
+        assertEquals(new BigDecimal("1400.00"), Money.toBigDecimal(140000));
+        assertEquals(new BigDecimal("0.05"), Money.toBigDecimal(5));
+    }
+
+    @Test
+    void shouldThrowExceptionOnOverflow() {
+        assertThrows(ArithmeticException.class,
+                () -> Money.toCents(new BigDecimal("1E+20"), RoundingMode.FLOOR));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRoundingIsNecessary() {
+        assertThrows(ArithmeticException.class,
+                () -> Money.toCents(new BigDecimal("2.225"), RoundingMode.UNNECESSARY));
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.exercise.apam.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+
+@CamelCaseDisplayNameGenerator
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void shouldGenerateVersion7Uuids() {
+        final UUID uuid = UUID.fromString(new TimeOrderedIdGenerator().nextId().toString());
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsFromManyThreads() throws Exception {
+        final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        final Set<Identifier> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void shouldStartEachGeneratorAtRandomKeyAndSequence() {
+        final Identifier first = new TimeOrderedIdGenerator().nextId();
+        final Identifier second = new TimeOrderedIdGenerator().nextId();
+
+        assertNotEquals(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    @Test
+    void shouldGenerateIdsOrderedByTime() throws InterruptedException {
+        final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        final UUID first = UUID.fromString(generator.nextId().toString());
+        Thread.sleep(2);
+        final UUID second = UUID.fromString(generator.nextId().toString());
+
+        assertTrue(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void shouldUseIdGeneratorForAnonymousPerson() {
+        final Identifier id = Identifier.of(UUID.randomUUID());
+        final Person anonymous = new Person(TransactionPartyType.DONOR, () -> id);
+
+        assertSame(id, anonymous.getIdentifier());
+        assertEquals("Anonymous", anonymous.getName());
+    }
+
+    @Test
+    void shouldUseIdGeneratorForTransaction() {
+        final Identifier id = Identifier.of(UUID.randomUUID());
+        final Transaction transaction = Transaction.create(() -> id, "Donation", BigDecimal.TEN, TransactionSubject.DONATION,
+                new Person(TransactionPartyType.DONOR));
+
+        assertSame(id, transaction.getIdentifier());
+        assertEquals(id.toString(), transaction.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenIdGeneratorIsNull() {
+        assertThrows(NullPointerException.class, () -> new Person(TransactionPartyType.DONOR, null));
+    }
+}
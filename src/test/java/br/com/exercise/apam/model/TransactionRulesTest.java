@@ -0,0 +1,67 @@
+package br.com.exercise.apam.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+
+@CamelCaseDisplayNameGenerator
+class TransactionRulesTest {
+
+    @ParameterizedTest
+    @EnumSource(AccountType.class)
+    void shouldAllowOnlyAccountTypeSubjects(final AccountType accountType) {
+        final Set<TransactionSubject> expected = EnumSet.of(TransactionSubject.PAYMENT);
+        switch (accountType) {
+            case CITY_HALL_ACCOUNT:
+                expected.add(TransactionSubject.CHILD_PAYMENT);
+                break;
+            case CHILD_ACCOUNT:
+                expected.add(TransactionSubject.CHILD_SALARY);
+                break;
+            case DONATION_ACCOUNT:
+                expected.add(TransactionSubject.DONATION);
+                break;
+        }
+
+        for (TransactionSubject subject : TransactionSubject.values()) {
+            assertEquals(expected.contains(subject), TransactionRules.isSubjectAllowed(accountType, subject));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransactionSubject.class)
+    void shouldAllowOnlySubjectPartyTypes(final TransactionSubject subject) {
+        final Set<TransactionPartyType> expected;
+        switch (subject) {
+            case DONATION:
+                expected = EnumSet.of(TransactionPartyType.DONOR, TransactionPartyType.COMPANY);
+                break;
+            case PAYMENT:
+                expected = EnumSet.of(TransactionPartyType.EMPLOYEE, TransactionPartyType.SERVICE_PROVIDER, TransactionPartyType.COMPANY);
+                break;
+            case CHILD_PAYMENT:
+                expected = EnumSet.of(TransactionPartyType.CITY_HALL);
+                break;
+            default:
+                expected = EnumSet.of(TransactionPartyType.COMPANY);
+        }
+
+        for (TransactionPartyType partyType : TransactionPartyType.values()) {
+            assertEquals(expected.contains(partyType), TransactionRules.isPartyTypeAllowed(subject, partyType));
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenParametersAreNull() {
+        assertThrows(NullPointerException.class, () -> TransactionRules.isSubjectAllowed(null, TransactionSubject.PAYMENT));
+        assertThrows(NullPointerException.class, () -> TransactionRules.isPartyTypeAllowed(TransactionSubject.PAYMENT, null));
+    }
+}
@@ -6,6 +6,8 @@ import static br.com.exercise.apam.dataprovider.CommonsProvider.provideValue;
 import static br.com.exercise.apam.dataprovider.PersonDataProvider.provideDonor;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
@@ -127,6 +129,39 @@ class TransactionTest {
         assertEquals(party, transaction.getParty());
     }
 
+    @Test
+    void shouldBeEqualWhenIdsAreEqual() {
+        final String id = provideId();
+        final Transaction transaction = new Transaction(id, provideDescription(), provideValue(), TransactionSubject.DONATION, provideDonor());
+        final Transaction other = new Transaction(id, provideDescription(), provideValue(), TransactionSubject.DONATION, provideDonor());
+
+        assertEquals(transaction, other);
+        assertEquals(transaction.hashCode(), other.hashCode());
+    }
+
+    @Test
+    void shouldNotBeEqualWhenIdsAreDifferent() {
+        final Transaction transaction = new Transaction(provideId(), provideDescription(), provideValue(), TransactionSubject.DONATION, provideDonor());
+        final Transaction other = new Transaction(provideId(), provideDescription(), provideValue(), TransactionSubject.DONATION, provideDonor());
+
+        assertNotEquals(transaction, other);
+    }
+
+    @Test
+    void shouldRestoreTransactionWithItsFields() {
+        final Transaction transaction = new Transaction(provideId(), provideDescription(), provideValue(), TransactionSubject.DONATION, provideDonor());
+
+        final Transaction restored = Transaction.restore(transaction.getIdentifier(), transaction.getDescription(),
+                transaction.getValue(), transaction.getSubject(), transaction.getParty(), transaction.getPostedAt());
+
+        assertEquals(transaction, restored);
+        assertSame(transaction.getIdentifier(), restored.getIdentifier());
+        assertEquals(transaction.getValue(), restored.getValue());
+        assertEquals(transaction.getPostedAt(), restored.getPostedAt());
+        assertThrows(NullPointerException.class, () -> Transaction.restore(null, transaction.getDescription(),
+                transaction.getValue(), transaction.getSubject(), transaction.getParty(), transaction.getPostedAt()));
+    }
+
     @ParameterizedTest
     @MethodSource(value = "provideInvalidSubjectParties")
     void shouldThrowExceptionWhenBuildingWithInvalidSubjectParty(final TransactionSubject subject,
@@ -0,0 +1,174 @@
+package br.com.exercise.apam.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.exercise.apam.dataprovider.CommonsProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Account;
+import br.com.exercise.apam.model.AccountType;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class MappedTransactionStoreTest {
+
+    private static final TransactionParty APAM = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+    private static final String ACCOUNT_ID = CommonsProvider.provideId();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReturnAppendedTransactions() throws IOException {
+        final List<Transaction> expected = new ArrayList<>();
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            final List<Transaction> transactions = store.getTransactions(ACCOUNT_ID);
+            for (int i = 0; i < 1000; i++) {
+                final Transaction transaction = TransactionDataProvider.providePersonDonation();
+                expected.add(transaction);
+                transactions.add(transaction);
+            }
+
+            assertTransactionsStored(expected, transactions);
+        }
+    }
+
+    @Test
+    void shouldKeepTransactionsWhenReopened() throws IOException {
+        final List<Transaction> expected = new ArrayList<>();
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            for (int i = 0; i < 10; i++) {
+                final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, APAM);
+                expected.add(transaction);
+                store.getTransactions(ACCOUNT_ID).add(transaction);
+            }
+        }
+
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            assertTransactionsStored(expected, store.getTransactions(ACCOUNT_ID));
+        }
+    }
+
+    @Test
+    void shouldStoreAmountsThatDoNotFitInALong() throws IOException {
+        final Transaction transaction = new Transaction(CommonsProvider.provideId(), CommonsProvider.provideDescription(),
+                new BigDecimal("123456789012345678901234567890.123456789"), TransactionSubject.DONATION, APAM);
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            store.getTransactions(ACCOUNT_ID).add(transaction);
+
+            assertEquals(transaction.getValue(), store.getTransactions(ACCOUNT_ID).get(0).getValue());
+        }
+    }
+
+    @Test
+    void shouldRebuildAccountBalanceFromStore() throws IOException {
+        final Account account;
+        final String firstTransactionId;
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            account = new Account(ACCOUNT_ID, CommonsProvider.provideId(), AccountType.DONATION_ACCOUNT, store.getTransactions(ACCOUNT_ID));
+            for (int i = 0; i < 10; i++) {
+                account.addTransaction(TransactionDataProvider.providePersonDonation());
+            }
+            account.addTransaction(TransactionDataProvider.provide(TransactionSubject.PAYMENT, APAM));
+            firstTransactionId = account.getTransactions().get(0).getId();
+        }
+
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            final Account reopened = new Account(account.getId(), account.getNumber(), account.getType(),
+                    store.getTransactions(account.getId()));
+
+            assertEquals(account.getBalance(), reopened.getBalance());
+            assertEquals(account.getMonthlyStatements().size(), reopened.getMonthlyStatements().size());
+            assertEquals(11, reopened.getTransactions().size());
+            assertTrue(reopened.containsTransaction(firstTransactionId));
+            reopened.addTransaction(reopened.getTransactions().get(0));
+            assertEquals(11, reopened.getTransactions().size());
+        }
+    }
+
+    @Test
+    void shouldShareStoreBetweenAccounts() throws IOException {
+        final String otherAccountId = CommonsProvider.provideId();
+        final List<Transaction> expected = new ArrayList<>();
+        final List<Transaction> otherExpected = new ArrayList<>();
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            final Account account = new Account(ACCOUNT_ID, CommonsProvider.provideId(), AccountType.DONATION_ACCOUNT,
+                    store.getTransactions(ACCOUNT_ID));
+            final Account otherAccount = new Account(otherAccountId, CommonsProvider.provideId(), AccountType.DONATION_ACCOUNT,
+                    store.getTransactions(otherAccountId));
+            for (int i = 0; i < 600; i++) {
+                final Transaction transaction = TransactionDataProvider.providePersonDonation();
+                expected.add(transaction);
+                account.addTransaction(transaction);
+                if (i % 2 == 0) {
+                    otherExpected.add(transaction);
+                    otherAccount.addTransaction(transaction);
+                }
+            }
+            account.addTransaction(expected.get(0));
+        }
+
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            final Account account = new Account(ACCOUNT_ID, CommonsProvider.provideId(), AccountType.DONATION_ACCOUNT,
+                    store.getTransactions(ACCOUNT_ID));
+            final Account otherAccount = new Account(otherAccountId, CommonsProvider.provideId(), AccountType.DONATION_ACCOUNT,
+                    store.getTransactions(otherAccountId));
+
+            assertTransactionsStored(expected, account.getTransactions());
+            assertTransactionsStored(otherExpected, otherAccount.getTransactions());
+            assertTrue(otherAccount.containsTransaction(expected.get(0).getId()));
+            assertFalse(otherAccount.containsTransaction(expected.get(1).getId()));
+            assertSame(store.getTransactions(ACCOUNT_ID), store.getTransactions(ACCOUNT_ID));
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenStoreIsClosed() throws IOException {
+        final MappedTransactionStore store = MappedTransactionStore.open(tempDir);
+        final List<Transaction> transactions = store.getTransactions(ACCOUNT_ID);
+        transactions.add(TransactionDataProvider.providePersonDonation());
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> transactions.get(0));
+        assertThrows(IllegalStateException.class, () -> transactions.add(TransactionDataProvider.providePersonDonation()));
+        assertThrows(IllegalStateException.class, () -> store.getTransactions(ACCOUNT_ID));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenIndexIsOutOfBounds() throws IOException {
+        try (MappedTransactionStore store = MappedTransactionStore.open(tempDir)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> store.getTransactions(ACCOUNT_ID).get(0));
+        }
+    }
+
+    private void assertTransactionsStored(final List<Transaction> expected, final List<Transaction> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Transaction expectedTransaction = expected.get(i);
+            final Transaction actualTransaction = actual.get(i);
+            assertEquals(expectedTransaction.getId(), actualTransaction.getId());
+            assertEquals(expectedTransaction.getDescription(), actualTransaction.getDescription());
+            assertEquals(expectedTransaction.getValue(), actualTransaction.getValue());
+            assertEquals(expectedTransaction.getSubject(), actualTransaction.getSubject());
+            assertEquals(expectedTransaction.getParty(), actualTransaction.getParty());
+            assertEquals(expectedTransaction.getPostedAt(), actualTransaction.getPostedAt());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.exercise.apam.wire;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.exercise.apam.dataprovider.CommonsProvider;
+import br.com.exercise.apam.dataprovider.TransactionDataProvider;
+import br.com.exercise.apam.dataprovider.TransactionPartyDataProvider;
+import br.com.exercise.apam.helpers.CamelCaseDisplayNameGenerator;
+import br.com.exercise.apam.model.Identifier;
+import br.com.exercise.apam.model.Transaction;
+import br.com.exercise.apam.model.TransactionParty;
+import br.com.exercise.apam.model.TransactionPartyType;
+import br.com.exercise.apam.model.TransactionSubject;
+
+@CamelCaseDisplayNameGenerator
+class TransactionCodecTest {
+
+    private static final TransactionParty APAM = TransactionPartyDataProvider.provide(TransactionPartyType.COMPANY);
+
+    private Map<Identifier, TransactionParty> parties;
+
+    @BeforeEach
+    void setUp() {
+        this.parties = new HashMap<>();
+        this.parties.put(APAM.getIdentifier(), APAM);
+    }
+
+    @Test
+    void shouldDecodeEncodedTransaction() {
+        final Transaction transaction = TransactionDataProvider.provide(TransactionSubject.DONATION, APAM);
+
+        assertTransactionDecoded(transaction, encodeAndDecode(transaction));
+    }
+
+    @Test
+    void shouldDecodeNonAsciiStringsAndLargeValues() {
+        final Transaction transaction = new Transaction("id-ção-😀", "Doação de R$ para crianças 中",
+                new BigDecimal("123456789012345678901234567890.123456789"), TransactionSubject.DONATION, APAM);
+
+        assertTransactionDecoded(transaction, encodeAndDecode(transaction));
+    }
+
+    @Test
+    void shouldDecodeBatchOfTransactions() {
+        final List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+            parties.put(donor.getIdentifier(), donor);
+            transactions.add(TransactionDataProvider.provide(TransactionSubject.DONATION, donor));
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(TransactionCodec.encodedBatchSize(transactions) * 2);
+        TransactionCodec.encodeBatch(transactions, buffer);
+        TransactionCodec.encodeBatch(transactions.subList(0, 10), buffer);
+        buffer.flip();
+
+        final List<Transaction> first = TransactionCodec.decodeBatch(buffer, parties::get);
+        final List<Transaction> second = TransactionCodec.decodeBatch(buffer, parties::get);
+
+        assertEquals(transactions.size(), first.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            assertTransactionDecoded(transactions.get(i), first.get(i));
+        }
+        assertEquals(10, second.size());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldWaitForCompleteFrame() {
+        final List<Transaction> transactions = new ArrayList<>();
+        transactions.add(TransactionDataProvider.provide(TransactionSubject.DONATION, APAM));
+        final ByteBuffer buffer = ByteBuffer.allocate(TransactionCodec.encodedBatchSize(transactions));
+        TransactionCodec.encodeBatch(transactions, buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+
+        assertFalse(TransactionCodec.hasCompleteFrame(buffer));
+        assertThrows(BufferUnderflowException.class, () -> TransactionCodec.decodeBatch(buffer, parties::get));
+
+        buffer.limit(buffer.capacity());
+        assertTrue(TransactionCodec.hasCompleteFrame(buffer));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPartyIsUnknown() {
+        final Transaction transaction = TransactionDataProvider.providePersonDonation();
+        final ByteBuffer buffer = ByteBuffer.allocate(TransactionCodec.encodedSize(transaction));
+        TransactionCodec.encode(transaction, buffer);
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionCodec.decode(buffer, parties::get));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenPartyTypeDoesNotMatch() {
+        final Transaction transaction = new Transaction(CommonsProvider.provideId(), CommonsProvider.provideDescription(),
+                CommonsProvider.provideValue(), TransactionSubject.DONATION, APAM);
+        final ByteBuffer buffer = ByteBuffer.allocate(TransactionCodec.encodedSize(transaction));
+        TransactionCodec.encode(transaction, buffer);
+        buffer.flip();
+        final TransactionParty donor = TransactionPartyDataProvider.provide(TransactionPartyType.DONOR);
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionCodec.decode(buffer, id -> donor));
+    }
+
+    private Transaction encodeAndDecode(final Transaction transaction) {
+        final ByteBuffer buffer = ByteBuffer.allocate(TransactionCodec.encodedSize(transaction));
+        TransactionCodec.encode(transaction, buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        final Transaction decoded = TransactionCodec.decode(buffer, parties::get);
+        assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+
+    private void assertTransactionDecoded(final Transaction expected, final Transaction actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(expected.getSubject(), actual.getSubject());
+        assertEquals(expected.getParty(), actual.getParty());
+        assertEquals(expected.getPostedAt(), actual.getPostedAt());
+    }
+}